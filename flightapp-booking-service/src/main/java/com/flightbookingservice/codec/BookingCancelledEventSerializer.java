@@ -0,0 +1,27 @@
+package com.flightbookingservice.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.flightbookingservice.dto.BookingCancelledEvent;
+
+/**
+ * Writes a {@link BookingCancelledEvent} in the {@link EventCodec} format.
+ */
+public class BookingCancelledEventSerializer implements Serializer<BookingCancelledEvent> {
+
+	static final int PNR = 1;
+	static final int FLIGHT_ID = 2;
+	static final int SEATS_TO_RELEASE = 3;
+
+	@Override
+	public byte[] serialize(String topic, BookingCancelledEvent event) {
+		if (event == null) {
+			return null;
+		}
+		return new EventCodec.Writer()
+				.string(PNR, event.getPnr())
+				.int32(FLIGHT_ID, event.getFlightId())
+				.int32(SEATS_TO_RELEASE, event.getSeatsToRelease())
+				.toByteArray();
+	}
+}
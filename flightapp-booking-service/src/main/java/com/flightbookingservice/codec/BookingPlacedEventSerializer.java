@@ -0,0 +1,27 @@
+package com.flightbookingservice.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.flightbookingservice.dto.BookingPlacedEvent;
+
+/**
+ * Writes a {@link BookingPlacedEvent} in the {@link EventCodec} format.
+ */
+public class BookingPlacedEventSerializer implements Serializer<BookingPlacedEvent> {
+
+	static final int PNR = 1;
+	static final int EMAIL = 2;
+	static final int NAME = 3;
+
+	@Override
+	public byte[] serialize(String topic, BookingPlacedEvent event) {
+		if (event == null) {
+			return null;
+		}
+		return new EventCodec.Writer()
+				.string(PNR, event.getPnr())
+				.string(EMAIL, event.getEmail())
+				.string(NAME, event.getName())
+				.toByteArray();
+	}
+}
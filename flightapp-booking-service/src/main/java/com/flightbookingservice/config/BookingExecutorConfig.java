@@ -0,0 +1,32 @@
+package com.flightbookingservice.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded pool for flight-service calls made in parallel while booking, such as the outward and
+ * return lookups of a round trip. When the queue is full the caller runs the task itself.
+ */
+@Configuration
+public class BookingExecutorConfig {
+
+	public static final String FLIGHT_LOOKUP_EXECUTOR = "flightLookupExecutor";
+
+	@Bean(name = FLIGHT_LOOKUP_EXECUTOR)
+	public Executor flightLookupExecutor(@Value("${booking.flight-lookup.executor.pool-size:16}") int poolSize,
+			@Value("${booking.flight-lookup.executor.queue-capacity:100}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("flight-lookup-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+}
@@ -0,0 +1,47 @@
+package com.flightbookingservice.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
+
+import com.flightbookingservice.codec.BookingCancelledEventSerializer;
+import com.flightbookingservice.codec.BookingPlacedEventSerializer;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Chooses the wire format of each outgoing event by topic. Topics listed in
+ * booking.kafka.binary-topics are written in the binary event format; every other topic, and any
+ * listed topic while it is removed from the list again, gets JSON.
+ */
+@Configuration
+public class EventSerializerConfig {
+
+	public static final String EVENT_SERIALIZER = "eventSerializer";
+
+	private static final Map<String, Serializer<?>> BINARY_SERIALIZERS = Map.of(
+			"booking-placed-topic", new BookingPlacedEventSerializer(),
+			"booking-cancellation-topic", new BookingCancelledEventSerializer());
+
+	@Bean(name = EVENT_SERIALIZER)
+	public DelegatingByTopicSerializer eventSerializer(ObjectMapper objectMapper,
+			@Value("${booking.kafka.binary-topics:}") List<String> binaryTopics) {
+		Map<Pattern, Serializer<?>> delegates = new LinkedHashMap<>();
+		for (String topic : binaryTopics) {
+			Serializer<?> serializer = BINARY_SERIALIZERS.get(topic.trim());
+			if (serializer == null) {
+				throw new IllegalStateException("No binary serializer for topic " + topic);
+			}
+			delegates.put(Pattern.compile(Pattern.quote(topic.trim())), serializer);
+		}
+		Serializer<Object> json = (topic, event) -> event == null ? null : objectMapper.writeValueAsBytes(event);
+		return new DelegatingByTopicSerializer(delegates, json);
+	}
+}
@@ -8,11 +8,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.flightbookingservice.dto.BookingRequest;
 import com.flightbookingservice.dto.CancelResponse;
 import com.flightbookingservice.dto.ItineraryDto;
+import com.flightbookingservice.dto.ItineraryPage;
 import com.flightbookingservice.service.BookingService;
 
 import jakarta.validation.Valid;
@@ -49,6 +51,13 @@ public class BookingController {
 		return bookingService.getHistoryByEmail(emailId);
 	}
 	
+	@GetMapping("/booking/history/{emailId}/page")
+	public ItineraryPage getBookingHistoryPage(@PathVariable String emailId,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size) {
+		log.info("GET /api/v1.0/flight/booking/history/{}/page size={}", emailId, size);
+		return bookingService.getHistoryPage(emailId, cursor, size);
+	}
+	
 	@DeleteMapping("/booking/cancel/{pnr}")
 	public CancelResponse cancelBooking(@PathVariable String pnr) {
 		log.info("DELETE /api/v1.0/flight/booking/cancel/{}",pnr);
@@ -0,0 +1,13 @@
+package com.flightbookingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FlightChangedEvent {
+	private Integer flightId;
+	private String changeType;
+}
@@ -0,0 +1,17 @@
+package com.flightbookingservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItineraryPage {
+	private List<ItineraryDto> itineraries;
+	
+	// Null on the last page
+	private String nextCursor;
+}
@@ -20,6 +20,9 @@ public class LegDto {
 	@DateTimeFormat(pattern = "dd/mm/yy hh:mm a")
 	private LocalDateTime arrivalTime;
 	
+	private String airlineCode;
+	private Integer pricePaid;
+	
 	private TripSegmentType segmentType;
 	private BookingStatus status;
 	private List<PassengerDto> passengers;
@@ -61,6 +64,18 @@ public class LegDto {
 	public void setArrivalTime(LocalDateTime arrivalTime) {
 		this.arrivalTime = arrivalTime;
 	}
+	public String getAirlineCode() {
+		return airlineCode;
+	}
+	public void setAirlineCode(String airlineCode) {
+		this.airlineCode = airlineCode;
+	}
+	public Integer getPricePaid() {
+		return pricePaid;
+	}
+	public void setPricePaid(Integer pricePaid) {
+		this.pricePaid = pricePaid;
+	}
 	public TripSegmentType getSegmentType() {
 		return segmentType;
 	}
@@ -0,0 +1,27 @@
+package com.flightbookingservice.dto;
+
+public class SeatReservationItemDto {
+	private Integer flightId;
+	private int seats;
+	
+	public SeatReservationItemDto() {
+	}
+	
+	public SeatReservationItemDto(Integer flightId, int seats) {
+		this.flightId = flightId;
+		this.seats = seats;
+	}
+	
+	public Integer getFlightId() {
+		return flightId;
+	}
+	public void setFlightId(Integer flightId) {
+		this.flightId = flightId;
+	}
+	public int getSeats() {
+		return seats;
+	}
+	public void setSeats(int seats) {
+		this.seats = seats;
+	}
+}
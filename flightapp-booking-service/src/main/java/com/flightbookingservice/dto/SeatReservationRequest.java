@@ -0,0 +1,22 @@
+package com.flightbookingservice.dto;
+
+import java.util.List;
+
+public class SeatReservationRequest {
+	private List<SeatReservationItemDto> legs;
+	
+	public SeatReservationRequest() {
+	}
+	
+	public SeatReservationRequest(List<SeatReservationItemDto> legs) {
+		this.legs = legs;
+	}
+
+	public List<SeatReservationItemDto> getLegs() {
+		return legs;
+	}
+
+	public void setLegs(List<SeatReservationItemDto> legs) {
+		this.legs = legs;
+	}
+}
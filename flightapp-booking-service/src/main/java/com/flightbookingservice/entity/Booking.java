@@ -1,9 +1,14 @@
 package com.flightbookingservice.entity;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
+import com.flightbookingservice.dto.FlightSummaryDto;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -41,8 +46,38 @@ public class Booking {
 	@NotNull
 	@Enumerated(EnumType.STRING)
 	private BookingStatus status;
+	
+	// Snapshot of the flight taken at booking time, so tickets and history never call flight-service.
+	// Null only on rows booked before the snapshot existed, until BookingSnapshotBackfill fills them.
+	private String fromAirport;
+	
+	private String toAirport;
+	
+	private LocalDateTime departureTime;
+	
+	private LocalDateTime arrivalTime;
+	
+	private String airlineCode;
+	
+	// Per-seat fare paid for this leg
+	private Integer pricePaid;
 
+	// Loaded for up to 100 bookings per select when a list of itineraries is rendered
+	@BatchSize(size = 100)
 	@OneToMany(mappedBy = "booking", cascade = CascadeType.ALL)
 	private List<Passenger> passengers = new ArrayList<>();
+	
+	public boolean hasFlightSnapshot() {
+		return fromAirport != null;
+	}
+	
+	public void applyFlightSnapshot(FlightSummaryDto flight) {
+		this.fromAirport = flight.getFromAirport();
+		this.toAirport = flight.getToAirport();
+		this.departureTime = flight.getDepartureTime();
+		this.arrivalTime = flight.getArrivalTime();
+		this.airlineCode = flight.getAirlineCode();
+		this.pricePaid = flight.getPrice();
+	}
 }
 
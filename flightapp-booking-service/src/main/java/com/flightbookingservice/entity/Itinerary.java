@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -12,14 +14,18 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Positive;
 
 @Entity
+@Table(indexes = @Index(name = "idx_itinerary_user_created", columnList = "user_id, created_time, id"))
 public class Itinerary {
 	
 	@Id
@@ -30,7 +36,10 @@ public class Itinerary {
 	@NotBlank
 	private String pnr;
 	
+	// Named explicitly: the implicit name derives from "user", which gets quoted when keywords are
+	// auto-quoted, and the index above would then no longer find the column
 	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "user_id")
 	private User user;
 	
 	@NotNull
@@ -46,6 +55,7 @@ public class Itinerary {
 	private BookingStatus status;
 	
 	// Add cascade + orphan removal so that bookings (and nested passengers) persist with itinerary
+	@BatchSize(size = 100)
 	@OneToMany(mappedBy = "itinerary", cascade = CascadeType.ALL, orphanRemoval = true)
 	private List<Booking> bookings = new ArrayList<>();
 	
@@ -0,0 +1,46 @@
+package com.flightbookingservice.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Kafka message written in the same transaction as the change it announces, and deleted by
+ * the outbox relay once the broker has acknowledged it. The id gives the publish order.
+ * A relay claims rows before sending them, so no lock is held while it waits on Kafka.
+ */
+@Entity
+@Data
+public class OutboxEvent {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@NotBlank
+	private String topic;
+	
+	// Kafka record key; events with the same key keep their order
+	@NotBlank
+	private String messageKey;
+	
+	// Record value as sent to Kafka, Base64 encoded
+	@NotBlank
+	@Column(length = 4000)
+	private String payload;
+	
+	@NotNull
+	private LocalDateTime createdTime;
+	
+	// Relay instance currently sending this row, and since when; null while unclaimed
+	private String claimOwner;
+	
+	private LocalDateTime claimedTime;
+}
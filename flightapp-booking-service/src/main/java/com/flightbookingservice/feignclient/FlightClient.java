@@ -1,12 +1,17 @@
 package com.flightbookingservice.feignclient;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.flightbookingservice.dto.FlightSummaryDto;
+import com.flightbookingservice.dto.SeatReservationRequest;
 
 @FeignClient(name = "FLIGHTAPP-FLIGHT-SERVICE")
 public interface FlightClient {
@@ -14,6 +19,13 @@ public interface FlightClient {
 	@GetMapping("/api/internal/flight/{id}")
 	FlightSummaryDto getFlightById(@PathVariable int id);
 	
+	@GetMapping("/api/internal/flight/batch")
+	Map<Integer, FlightSummaryDto> getFlightsByIds(@RequestParam("ids") Collection<Integer> ids);
+	
 	@PutMapping("/api/internal/flight/{id}/seats")
 	void updateSeats(@PathVariable int id, @RequestParam int count);
+	
+	// Reserves seats on every leg in one all-or-nothing transaction
+	@PutMapping("/api/internal/flight/seats/reserve")
+	void reserveSeats(@RequestBody SeatReservationRequest request);
 }
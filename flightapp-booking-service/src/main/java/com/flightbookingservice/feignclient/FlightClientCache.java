@@ -0,0 +1,112 @@
+package com.flightbookingservice.feignclient;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.flightbookingservice.dto.FlightSummaryDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Near-cache of flight details in front of {@link FlightClient}, for the schedule data
+ * (airports, times, airline) that ticket and history views show.
+ * Entries are evicted when flight-service announces a change on flight-changed-topic, and the TTL
+ * bounds anything missed. Seat availability in a cached entry may be stale; use
+ * {@link #getFresh(int)} whenever the seat count matters.
+ * Concurrent lookups of the same flight share one remote call: cache misses through Caffeine's
+ * per-key loading, fresh reads through an in-flight future per flight id.
+ */
+@Component
+public class FlightClientCache {
+
+	private final FlightClient flightClient;
+	private final Cache<Integer, FlightSummaryDto> cache;
+	private final Map<Integer, CompletableFuture<FlightSummaryDto>> inFlight = new ConcurrentHashMap<>();
+
+	private final Counter remoteCalls;
+	private final Counter coalescedCalls;
+
+	public FlightClientCache(FlightClient flightClient, MeterRegistry meterRegistry,
+			@Value("${booking.flight-cache.max-size:5000}") long maxSize,
+			@Value("${booking.flight-cache.ttl-minutes:30}") long ttlMinutes) {
+		this.flightClient = flightClient;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+				.build();
+		this.remoteCalls = Counter.builder("booking.flight.lookup.remote")
+				.description("Fresh flight lookups that made a call to flight-service")
+				.register(meterRegistry);
+		this.coalescedCalls = Counter.builder("booking.flight.lookup.coalesced")
+				.description("Fresh flight lookups that joined a call already in flight")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Cached flight details; only calls flight-service on a miss.
+	 */
+	public FlightSummaryDto getFlight(int flightId) {
+		return cache.get(flightId, flightClient::getFlightById);
+	}
+
+	/**
+	 * Cached flight details for several flights; all misses are fetched in one batch call.
+	 * Flights unknown to flight-service are absent from the result.
+	 */
+	public Map<Integer, FlightSummaryDto> getFlights(Collection<Integer> flightIds) {
+		return cache.getAll(flightIds, missing -> flightClient.getFlightsByIds(List.copyOf(missing)));
+	}
+
+	/**
+	 * Calls flight-service, or joins a call for the same flight that is already outstanding,
+	 * and refreshes the cached entry with the result.
+	 */
+	public FlightSummaryDto getFresh(int flightId) {
+		CompletableFuture<FlightSummaryDto> call = new CompletableFuture<>();
+		CompletableFuture<FlightSummaryDto> existing = inFlight.putIfAbsent(flightId, call);
+		if (existing != null) {
+			coalescedCalls.increment();
+			return join(existing);
+		}
+
+		remoteCalls.increment();
+		try {
+			FlightSummaryDto flight = flightClient.getFlightById(flightId);
+			cache.put(flightId, flight);
+			call.complete(flight);
+			return flight;
+		} catch (RuntimeException e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(flightId, call);
+		}
+	}
+
+	public void evict(int flightId) {
+		cache.invalidate(flightId);
+	}
+
+	private static FlightSummaryDto join(CompletableFuture<FlightSummaryDto> call) {
+		try {
+			return call.join();
+		} catch (CompletionException e) {
+			// Joiners see the same exception as the caller that made the request
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
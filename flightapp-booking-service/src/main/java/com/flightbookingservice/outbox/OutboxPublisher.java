@@ -0,0 +1,43 @@
+package com.flightbookingservice.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightbookingservice.config.EventSerializerConfig;
+import com.flightbookingservice.entity.OutboxEvent;
+import com.flightbookingservice.repository.OutboxEventRepository;
+
+/**
+ * Queues a Kafka event in the outbox table. Must run inside the transaction that makes the change
+ * the event describes, so the event is stored if and only if that change commits.
+ * The event is stored already serialised for its topic, so the relay only moves bytes.
+ */
+@Component
+public class OutboxPublisher {
+
+	private final OutboxEventRepository outboxEventRepository;
+	private final Serializer<Object> eventSerializer;
+
+	public OutboxPublisher(OutboxEventRepository outboxEventRepository,
+			@Qualifier(EventSerializerConfig.EVENT_SERIALIZER) Serializer<Object> eventSerializer) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.eventSerializer = eventSerializer;
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void publish(String topic, String key, Object event) {
+		OutboxEvent e = new OutboxEvent();
+		e.setTopic(topic);
+		e.setMessageKey(key);
+		e.setPayload(Base64.getEncoder().encodeToString(eventSerializer.serialize(topic, new RecordHeaders(), event)));
+		e.setCreatedTime(LocalDateTime.now());
+		outboxEventRepository.save(e);
+	}
+}
@@ -0,0 +1,158 @@
+package com.flightbookingservice.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightbookingservice.entity.OutboxEvent;
+import com.flightbookingservice.repository.OutboxEventRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox to Kafka in id order, in three steps per batch:
+ * <ol>
+ * <li>A short transaction locks the head of the outbox, marks the rows claimed by this relay and
+ * commits, so bookings writing new rows never wait on Kafka.</li>
+ * <li>Outside any transaction the batch, which holds every leg of a cancellation written together,
+ * is handed to the producer in one go and flushed once, so it leaves as a few compressed producer
+ * batches rather than one request per record. The acknowledgements are checked in order against one
+ * deadline.</li>
+ * <li>A second transaction deletes the acknowledged prefix and releases the claim on the rest, which
+ * is sent again on the next run, so delivery is at least once.</li>
+ * </ol>
+ * A relay on another instance stops at the first row claimed by someone else, so the outbox is sent
+ * by one relay at a time and per-key order holds. A claim older than the claim timeout is taken over,
+ * so a relay that died mid-batch does not block the outbox.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+	private final OutboxEventRepository outboxEventRepository;
+	private final KafkaTemplate<String, byte[]> kafkaTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final long sendTimeoutMs;
+	private final Duration claimTimeout;
+	private final String owner = UUID.randomUUID().toString();
+
+	public OutboxRelay(OutboxEventRepository outboxEventRepository, KafkaTemplate<String, byte[]> kafkaTemplate,
+			TransactionTemplate transactionTemplate,
+			@Value("${booking.outbox.batch-size:100}") int batchSize,
+			@Value("${booking.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+			@Value("${booking.outbox.claim-timeout-ms:60000}") long claimTimeoutMs) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.kafkaTemplate = kafkaTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.batchSize = batchSize;
+		this.sendTimeoutMs = sendTimeoutMs;
+		this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+	}
+
+	@Scheduled(fixedDelayString = "${booking.outbox.relay-interval-ms:200}")
+	public void relay() {
+		try {
+			List<OutboxEvent> batch;
+			do {
+				batch = transactionTemplate.execute(status -> claimBatch());
+				if (batch == null || batch.isEmpty()) {
+					return;
+				}
+				List<Long> delivered = send(batch);
+				List<Long> unsent = batch.stream().map(OutboxEvent::getId).filter(id -> !delivered.contains(id)).toList();
+				transactionTemplate.execute(status -> {
+					finish(delivered, unsent);
+					return null;
+				});
+				if (!unsent.isEmpty()) {
+					return;
+				}
+			} while (batch.size() == batchSize);
+		} catch (RuntimeException e) {
+			log.error("Outbox relay run failed, will retry", e);
+		}
+	}
+
+	private List<OutboxEvent> claimBatch() {
+		List<OutboxEvent> head = outboxEventRepository.findRelayBatch(Limit.of(batchSize));
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime staleBefore = now.minus(claimTimeout);
+
+		List<OutboxEvent> claimed = new ArrayList<>(head.size());
+		for (OutboxEvent e : head) {
+			if (e.getClaimOwner() != null && !owner.equals(e.getClaimOwner()) && e.getClaimedTime().isAfter(staleBefore)) {
+				// Another relay is sending these; later rows wait behind it so their order holds
+				break;
+			}
+			e.setClaimOwner(owner);
+			e.setClaimedTime(now);
+			claimed.add(e);
+		}
+		return claimed;
+	}
+
+	/**
+	 * @return ids of the acknowledged prefix of the batch
+	 */
+	private List<Long> send(List<OutboxEvent> batch) {
+		List<CompletableFuture<SendResult<String, byte[]>>> acks = new ArrayList<>(batch.size());
+		try {
+			for (OutboxEvent e : batch) {
+				acks.add(kafkaTemplate.send(e.getTopic(), e.getMessageKey(), payload(e)));
+			}
+			// Don't wait out linger.ms, the whole batch is already queued
+			kafkaTemplate.flush();
+		} catch (RuntimeException ex) {
+			// Producer could not queue the record within max.block.ms; what was queued is still checked
+			log.warn("Outbox batch handed to the producer only up to {} of {} events", acks.size(), batch.size(), ex);
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+		List<Long> delivered = new ArrayList<>(acks.size());
+		for (int i = 0; i < acks.size(); i++) {
+			OutboxEvent e = batch.get(i);
+			try {
+				acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				delivered.add(e.getId());
+			} catch (ExecutionException | TimeoutException ex) {
+				log.warn("Outbox event {} to {} not acknowledged, {} events left for the next run", e.getId(), e.getTopic(),
+						batch.size() - i, ex);
+				break;
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return delivered;
+	}
+
+	private void finish(List<Long> delivered, List<Long> unsent) {
+		if (!delivered.isEmpty()) {
+			outboxEventRepository.deleteAllByIdInBatch(delivered);
+			log.debug("Relayed {} outbox events", delivered.size());
+		}
+		if (!unsent.isEmpty()) {
+			outboxEventRepository.releaseClaims(unsent, owner);
+		}
+	}
+
+	private static byte[] payload(OutboxEvent e) {
+		return Base64.getDecoder().decode(e.getPayload());
+	}
+}
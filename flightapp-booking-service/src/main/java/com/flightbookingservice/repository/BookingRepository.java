@@ -2,6 +2,7 @@ package com.flightbookingservice.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.flightbookingservice.entity.Booking;
@@ -9,4 +10,7 @@ import com.flightbookingservice.entity.Booking;
 public interface BookingRepository extends JpaRepository<Booking, Integer>{
 	
 	List<Booking> findByItineraryId(int itineraryId);
+	
+	// Keyset scan over bookings still missing their flight snapshot
+	List<Booking> findByFromAirportIsNullAndIdGreaterThanOrderByIdAsc(int afterId, Limit limit);
 }
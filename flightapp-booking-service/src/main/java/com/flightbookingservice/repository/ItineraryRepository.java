@@ -1,9 +1,12 @@
 package com.flightbookingservice.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.flightbookingservice.entity.Itinerary;
 
@@ -11,4 +14,22 @@ public interface ItineraryRepository extends JpaRepository<Itinerary, Integer> {
 	Optional<Itinerary> findByPnr(String pnr);
 	
 	List<Itinerary> findByUserEmail(String email); 
+	
+	// Read paths for ticket rendering: user and bookings in the same statement,
+	// passengers in one batched select through @BatchSize on Booking.passengers
+	@Query("select i from Itinerary i join fetch i.user left join fetch i.bookings where i.pnr = :pnr")
+	Optional<Itinerary> findWithLegsByPnr(String pnr);
+	
+	@Query("select i from Itinerary i join fetch i.user u left join fetch i.bookings where u.email = :email")
+	List<Itinerary> findWithLegsByUserEmail(String email);
+	
+	// Newest first, walking the (user_id, createdTime, id) index; bookings and passengers load in batches
+	@Query("select i from Itinerary i join fetch i.user u where u.email = :email order by i.createdTime desc, i.id desc")
+	List<Itinerary> findLatestByUserEmail(String email, Limit limit);
+	
+	@Query("""
+			select i from Itinerary i join fetch i.user u where u.email = :email
+			and (i.createdTime < :beforeTime or (i.createdTime = :beforeTime and i.id < :beforeId))
+			order by i.createdTime desc, i.id desc""")
+	List<Itinerary> findLatestByUserEmailBefore(String email, LocalDateTime beforeTime, int beforeId, Limit limit);
 }
@@ -0,0 +1,26 @@
+package com.flightbookingservice.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.flightbookingservice.entity.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+	
+	// Oldest first; locked only for the short transaction in which the relay claims the rows
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select e from OutboxEvent e order by e.id")
+	List<OutboxEvent> findRelayBatch(Limit limit);
+	
+	@Modifying
+	@Query("update OutboxEvent e set e.claimOwner = null, e.claimedTime = null where e.id in :ids and e.claimOwner = :owner")
+	int releaseClaims(Collection<Long> ids, String owner);
+}
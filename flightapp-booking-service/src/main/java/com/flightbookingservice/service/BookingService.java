@@ -5,6 +5,7 @@ import java.util.List;
 import com.flightbookingservice.dto.BookingRequest;
 import com.flightbookingservice.dto.CancelResponse;
 import com.flightbookingservice.dto.ItineraryDto;
+import com.flightbookingservice.dto.ItineraryPage;
 
 public interface BookingService {
 	
@@ -14,5 +15,7 @@ public interface BookingService {
 	
 	List<ItineraryDto> getHistoryByEmail(String email);
 	
+	ItineraryPage getHistoryPage(String email, String cursor, int size);
+	
 	CancelResponse cancelByPnr(String pnr);
 }
@@ -0,0 +1,108 @@
+package com.flightbookingservice.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightbookingservice.dto.FlightSummaryDto;
+import com.flightbookingservice.entity.Booking;
+import com.flightbookingservice.feignclient.FlightClient;
+import com.flightbookingservice.repository.BookingRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills the flight snapshot on bookings made before it was stored, in id order, one batch
+ * lookup to flight-service and one transaction per batch. Runs once on startup; if flight-service
+ * is unreachable it stops and the next startup continues where rows are still empty.
+ * The fare of a backfilled row is the flight's current price, the best figure still available.
+ */
+@Service
+@Slf4j
+public class BookingSnapshotBackfill {
+
+	private final BookingRepository bookingRepository;
+	private final FlightClient flightClient;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean enabled;
+	private final int batchSize;
+
+	public BookingSnapshotBackfill(BookingRepository bookingRepository, FlightClient flightClient,
+			TransactionTemplate transactionTemplate,
+			@Value("${booking.snapshot-backfill.enabled:true}") boolean enabled,
+			@Value("${booking.snapshot-backfill.batch-size:200}") int batchSize) {
+		this.bookingRepository = bookingRepository;
+		this.flightClient = flightClient;
+		this.transactionTemplate = transactionTemplate;
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfill() {
+		if (!enabled) {
+			return;
+		}
+
+		int afterId = 0;
+		int filled = 0;
+		try {
+			while (true) {
+				int from = afterId;
+				BatchResult result = transactionTemplate.execute(status -> backfillBatch(from));
+				if (result == null || result.lastId < 0) {
+					break;
+				}
+				afterId = result.lastId;
+				filled += result.filled;
+			}
+			if (filled > 0) {
+				log.info("Backfilled flight snapshot on {} bookings", filled);
+			}
+		} catch (RuntimeException e) {
+			log.error("Booking snapshot backfill stopped after {} bookings, will resume on next start", filled, e);
+		}
+	}
+
+	private BatchResult backfillBatch(int afterId) {
+		List<Booking> bookings = bookingRepository.findByFromAirportIsNullAndIdGreaterThanOrderByIdAsc(afterId, Limit.of(batchSize));
+		if (bookings.isEmpty()) {
+			return new BatchResult(-1, 0);
+		}
+
+		Set<Integer> flightIds = bookings.stream().map(Booking::getFlightId).collect(Collectors.toSet());
+		Map<Integer, FlightSummaryDto> flights = flightClient.getFlightsByIds(flightIds);
+
+		int filled = 0;
+		for (Booking booking : bookings) {
+			FlightSummaryDto flight = flights.get(booking.getFlightId());
+			if (flight == null) {
+				// Flight no longer known to flight-service; leave the row on the live fallback path
+				log.warn("No flight {} for booking {}, snapshot left empty", booking.getFlightId(), booking.getId());
+				continue;
+			}
+			booking.applyFlightSnapshot(flight);
+			filled++;
+		}
+		bookingRepository.saveAll(bookings);
+		return new BatchResult(bookings.get(bookings.size() - 1).getId(), filled);
+	}
+
+	private static final class BatchResult {
+		private final int lastId;
+		private final int filled;
+
+		private BatchResult(int lastId, int filled) {
+			this.lastId = lastId;
+			this.filled = filled;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.flightbookingservice.service;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.flightbookingservice.dto.FlightChangedEvent;
+import com.flightbookingservice.feignclient.FlightClientCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class FlightChangeConsumer {
+	
+	private final FlightClientCache flightClientCache;
+	
+	public FlightChangeConsumer(FlightClientCache flightClientCache) {
+		this.flightClientCache = flightClientCache;
+	}
+	
+	// Random group id per instance, so every booking-service instance sees every change
+	@KafkaListener(topics = "flight-changed-topic", groupId = "booking-flight-cache-${random.uuid}",
+			properties = "auto.offset.reset=latest")
+	public void handleFlightChanged(FlightChangedEvent event) {
+		log.info("Received {} change for Flight ID: {}, evicting cached copy", event.getChangeType(), event.getFlightId());
+		
+		flightClientCache.evict(event.getFlightId());
+	}
+}
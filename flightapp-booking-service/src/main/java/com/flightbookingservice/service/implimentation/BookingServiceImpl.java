@@ -4,23 +4,34 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.flightbookingservice.config.BookingExecutorConfig;
 import com.flightbookingservice.dto.BookingCancelledEvent;
 import com.flightbookingservice.dto.BookingPlacedEvent;
 import com.flightbookingservice.dto.BookingRequest;
 import com.flightbookingservice.dto.CancelResponse;
 import com.flightbookingservice.dto.FlightSummaryDto;
 import com.flightbookingservice.dto.ItineraryDto;
+import com.flightbookingservice.dto.ItineraryPage;
 import com.flightbookingservice.dto.LegDto;
 import com.flightbookingservice.dto.PassengerDto;
 import com.flightbookingservice.dto.PassengerRequest;
+import com.flightbookingservice.dto.SeatReservationItemDto;
+import com.flightbookingservice.dto.SeatReservationRequest;
 import com.flightbookingservice.entity.Booking;
 import com.flightbookingservice.entity.BookingStatus;
 import com.flightbookingservice.entity.Itinerary;
@@ -32,9 +43,12 @@ import com.flightbookingservice.entity.User;
 import com.flightbookingservice.exception.ResourceNotFoundException;
 import com.flightbookingservice.exception.SeatNotAvailableException;
 import com.flightbookingservice.feignclient.FlightClient;
+import com.flightbookingservice.feignclient.FlightClientCache;
+import com.flightbookingservice.outbox.OutboxPublisher;
 import com.flightbookingservice.repository.ItineraryRepository;
 import com.flightbookingservice.repository.UserRepository;
 import com.flightbookingservice.service.BookingService;
+import com.flightbookingservice.util.HistoryCursor;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,22 +56,26 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 	
-	@Autowired
-	private KafkaTemplate<String, BookingCancelledEvent> cancelTemplate;
-   
-	@Autowired
-	private KafkaTemplate<String, BookingPlacedEvent> placedTemplate;
+	private static final int MAX_PAGE_SIZE = 100;
 	
 	private final UserRepository userRepository;
     private final ItineraryRepository itineraryRepository;
     private final FlightClient flightClient; // Replaces FlightRepository
+    private final FlightClientCache flightClientCache;
+    private final Executor flightLookupExecutor;
+    private final OutboxPublisher outboxPublisher;
    
 
     public BookingServiceImpl(UserRepository userRepository, FlightClient flightClient,
-                              ItineraryRepository itineraryRepository) {
+                              ItineraryRepository itineraryRepository, FlightClientCache flightClientCache,
+                              @Qualifier(BookingExecutorConfig.FLIGHT_LOOKUP_EXECUTOR) Executor flightLookupExecutor,
+                              OutboxPublisher outboxPublisher) {
         this.userRepository = userRepository;
         this.flightClient = flightClient;
         this.itineraryRepository = itineraryRepository;
+        this.flightClientCache = flightClientCache;
+        this.flightLookupExecutor = flightLookupExecutor;
+        this.outboxPublisher = outboxPublisher;
     }
 
     @Override
@@ -67,17 +85,26 @@ public class BookingServiceImpl implements BookingService {
 
         validateBookingReq(req);
 
-        // 1. Fetch Outward Flight Details via Network
-        FlightSummaryDto outwardFlight = flightClient.getFlightById(outwardFlightId);
-
-        FlightSummaryDto returnFlight = null;
         boolean isRoundTrip = req.getTripType() == TripType.ROUND_TRIP;
+        if (isRoundTrip && req.getReturnFlightId() == null) {
+            throw new IllegalArgumentException("Return FlightId required!!!");
+        }
 
-        if (isRoundTrip) {
-            if (req.getReturnFlightId() == null) {
-                throw new IllegalArgumentException("Return FlightId required!!!");
+        // 1. Fetch Flight Details via Network (fresh, the seat check below needs live availability).
+        // The return leg is fetched on the lookup pool while this thread fetches the outward leg.
+        CompletableFuture<FlightSummaryDto> returnFuture = isRoundTrip
+                ? CompletableFuture.supplyAsync(() -> flightClientCache.getFresh(req.getReturnFlightId()), flightLookupExecutor)
+                : CompletableFuture.completedFuture(null);
+        FlightSummaryDto outwardFlight;
+        FlightSummaryDto returnFlight;
+        try {
+            outwardFlight = flightClientCache.getFresh(outwardFlightId);
+            returnFlight = returnFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-            returnFlight = flightClient.getFlightById(req.getReturnFlightId());
+            throw e;
         }
 
         int seats = req.getNumberOfSeats();
@@ -96,16 +123,21 @@ public class BookingServiceImpl implements BookingService {
             }
         }
 
+        List<SeatReservationItemDto> legs = new ArrayList<>();
+        legs.add(new SeatReservationItemDto(outwardFlightId, seats));
+        if (isRoundTrip) {
+            legs.add(new SeatReservationItemDto(req.getReturnFlightId(), seats));
+        }
+
         try {
-            flightClient.updateSeats(outwardFlightId, -seats);
-            if (isRoundTrip) {
-                flightClient.updateSeats(req.getReturnFlightId(), -seats);
-            }
+            flightClient.reserveSeats(new SeatReservationRequest(legs));
         } catch (Exception e) {
      
             log.error("Failed to update seats via Flight Service", e);
             throw new SeatNotAvailableException("Could not reserve seats. Please try again.");
         }
+        // From here on the seats are held in flight-service; give them back if the itinerary is not stored
+        releaseSeatsOnRollback(legs);
 
         // Calculate Totals
         int outwardAmount = outwardFlight.getPrice() * seats;
@@ -126,7 +158,7 @@ public class BookingServiceImpl implements BookingService {
         Booking outwardBooking = createBookingLeg(i, outwardFlight, req, isRoundTrip ? TripSegmentType.OUTBOUND : TripSegmentType.ONE_WAY);
         bookings.add(outwardBooking);
         
-        if (isRoundTrip && returnFlight != null) {
+        if (isRoundTrip) {
             Booking returnBooking = createBookingLeg(i, returnFlight, req, TripSegmentType.RETURN);
             bookings.add(returnBooking);
         }
@@ -136,21 +168,43 @@ public class BookingServiceImpl implements BookingService {
 
         log.info("Itinerary added successfully with PNR={} for user={}", i.getPnr(), user.getName());
 
-        try {
-            BookingPlacedEvent event = new BookingPlacedEvent();
-            event.setPnr(i.getPnr());
-            event.setEmail(user.getEmail());
-            event.setName(user.getName());
-            
-            placedTemplate.send("booking-placed-topic", event);
-            log.info("Published BookingPlacedEvent for PNR: {}", i.getPnr());
-        } catch (Exception e) {
-            log.error("Failed to publish booking event (non-fatal)", e);
-        }
+        BookingPlacedEvent event = new BookingPlacedEvent();
+        event.setPnr(i.getPnr());
+        event.setEmail(user.getEmail());
+        event.setName(user.getName());
+        
+        // Stored with the itinerary; the outbox relay sends it to Kafka after commit
+        outboxPublisher.publish("booking-placed-topic", i.getPnr(), event);
+        log.info("Queued BookingPlacedEvent for PNR: {}", i.getPnr());
         
         return toItineraryDto(i);
     }
 
+    private void releaseSeatsOnRollback(List<SeatReservationItemDto> legs) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    releaseSeats(legs);
+                }
+            }
+        });
+    }
+
+    private void releaseSeats(List<SeatReservationItemDto> legs) {
+        for (SeatReservationItemDto leg : legs) {
+            try {
+                flightClient.updateSeats(leg.getFlightId(), leg.getSeats());
+                log.info("Released {} seats on flight {} after failed booking", leg.getSeats(), leg.getFlightId());
+            } catch (Exception e) {
+                log.error("Could not release {} seats on flight {}, manual correction needed", leg.getSeats(), leg.getFlightId(), e);
+            }
+        }
+    }
+
     private void validateBookingReq(BookingRequest req) {
         if (req.getPassengers() == null || req.getPassengers().isEmpty()) {
             throw new IllegalArgumentException("Add Atleast one passenger!!!");
@@ -178,18 +232,49 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public ItineraryDto getItineraryByPnr(String pnr) {
         log.info("Fetching itinerary by PNR={}", pnr);
-        Itinerary i = itineraryRepository.findByPnr(pnr)
+        Itinerary i = itineraryRepository.findWithLegsByPnr(pnr)
                 .orElseThrow(() -> new ResourceNotFoundException("No itinerary for pnr!!!"));
-        return toItineraryDto(i);
+        return toItineraryDto(i, fetchMissingFlights(List.of(i)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItineraryDto> getHistoryByEmail(String email) {
         log.info("Fetching booking history for email={}", email);
-        List<Itinerary> i = itineraryRepository.findByUserEmail(email);
+        List<Itinerary> i = itineraryRepository.findWithLegsByUserEmail(email);
         log.debug("Found {} itineraries", i.size());
-        return i.stream().map(this::toItineraryDto).toList();
+        // One batch lookup for every leg still without a snapshot, instead of one call per leg
+        Map<Integer, FlightSummaryDto> flights = fetchMissingFlights(i);
+        return i.stream().map(it -> toItineraryDto(it, flights)).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItineraryPage getHistoryPage(String email, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.info("Fetching booking history page for email={} size={}", email, size);
+
+        // One extra row tells us whether another page exists
+        List<Itinerary> i;
+        if (cursor == null || cursor.isBlank()) {
+            i = itineraryRepository.findLatestByUserEmail(email, Limit.of(size + 1));
+        } else {
+            HistoryCursor before = HistoryCursor.decode(cursor);
+            i = itineraryRepository.findLatestByUserEmailBefore(email, before.getCreatedTime(), before.getItineraryId(),
+                    Limit.of(size + 1));
+        }
+
+        String nextCursor = null;
+        if (i.size() > size) {
+            i = i.subList(0, size);
+            Itinerary last = i.get(size - 1);
+            nextCursor = new HistoryCursor(last.getCreatedTime(), last.getId()).encode();
+        }
+
+        Map<Integer, FlightSummaryDto> flights = fetchMissingFlights(i);
+        return new ItineraryPage(i.stream().map(it -> toItineraryDto(it, flights)).toList(), nextCursor);
     }
 
 //Cancellation by Feign Client using Flight Service    
@@ -261,17 +346,18 @@ public class BookingServiceImpl implements BookingService {
         
         itineraryRepository.save(i);
         
+        // Stored with the cancellation; flight-service releases the seats when the relay delivers them.
+        // Keyed by flight, so every seat change for one flight lands on one partition in order.
         for (Booking b : i.getBookings()) {
             BookingCancelledEvent event = new BookingCancelledEvent();
             event.setPnr(pnr);
             event.setFlightId(b.getFlightId());
             event.setSeatsToRelease(b.getPassengers().size());
             
-            // Publish to Kafka
-            cancelTemplate.send("booking-cancellation-topic", event);
+            outboxPublisher.publish("booking-cancellation-topic", String.valueOf(b.getFlightId()), event);
        }
 
-       log.info("Cancellation processed locally for pnr={}. Events published.", pnr);
+       log.info("Cancellation processed locally for pnr={}. Events queued.", pnr);
         
        // 3. Return response immediately
        CancelResponse cr = new CancelResponse();
@@ -289,6 +375,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setJourneyDate(flightDto.getDepartureTime().toLocalDate());
         booking.setSegmentType(segmentType);
         booking.setStatus(BookingStatus.BOOKED);
+        booking.applyFlightSnapshot(flightDto);
 
         List<Passenger> passengers = new ArrayList<>();
         for (PassengerRequest pr : req.getPassengers()) {
@@ -311,7 +398,23 @@ public class BookingServiceImpl implements BookingService {
         return "TAD" + uuid.substring(0, 5).replace(" ", "");
     }
 
+    private Map<Integer, FlightSummaryDto> fetchMissingFlights(List<Itinerary> itineraries) {
+        Set<Integer> flightIds = itineraries.stream()
+                .flatMap(it -> it.getBookings().stream())
+                .filter(b -> !b.hasFlightSnapshot())
+                .map(Booking::getFlightId)
+                .collect(Collectors.toSet());
+        if (flightIds.isEmpty()) {
+            return Map.of();
+        }
+        return flightClientCache.getFlights(flightIds);
+    }
+
     private ItineraryDto toItineraryDto(Itinerary i) {
+        return toItineraryDto(i, Map.of());
+    }
+
+    private ItineraryDto toItineraryDto(Itinerary i, Map<Integer, FlightSummaryDto> flights) {
         ItineraryDto id = new ItineraryDto();
         id.setPnr(i.getPnr());
         id.setUserName(i.getUser().getName());
@@ -322,24 +425,37 @@ public class BookingServiceImpl implements BookingService {
 
         List<LegDto> legs = new ArrayList<>();
         for (Booking booking : i.getBookings()) {
-            // We must fetch flight details to populate the LegDto (Airport codes, times)
-            FlightSummaryDto flightDto = flightClient.getFlightById(booking.getFlightId());
-            legs.add(toLegDto(booking, flightDto));
+            legs.add(toLegDto(booking, flights));
         }
         id.setLegs(legs);
         return id;
     }
 
-    private LegDto toLegDto(Booking booking, FlightSummaryDto flightDto) {
+    private LegDto toLegDto(Booking booking, Map<Integer, FlightSummaryDto> flights) {
         LegDto ld = new LegDto();
         ld.setBookingId(booking.getId());
         ld.setFlightId(booking.getFlightId());
         
-        // Populate details from the fetched Flight DTO
-        ld.setFromAirport(flightDto.getFromAirport());
-        ld.setToAirport(flightDto.getToAirport());
-        ld.setDepartureTime(flightDto.getDepartureTime());
-        ld.setArrivalTime(flightDto.getArrivalTime());
+        if (booking.hasFlightSnapshot()) {
+            // Everything the ticket shows was captured at booking time
+            ld.setFromAirport(booking.getFromAirport());
+            ld.setToAirport(booking.getToAirport());
+            ld.setDepartureTime(booking.getDepartureTime());
+            ld.setArrivalTime(booking.getArrivalTime());
+            ld.setAirlineCode(booking.getAirlineCode());
+            ld.setPricePaid(booking.getPricePaid());
+        } else {
+            // Older row not backfilled yet, fall back to flight-service via the near-cache
+            FlightSummaryDto flightDto = flights.get(booking.getFlightId());
+            if (flightDto == null) {
+                flightDto = flightClientCache.getFlight(booking.getFlightId());
+            }
+            ld.setFromAirport(flightDto.getFromAirport());
+            ld.setToAirport(flightDto.getToAirport());
+            ld.setDepartureTime(flightDto.getDepartureTime());
+            ld.setArrivalTime(flightDto.getArrivalTime());
+            ld.setAirlineCode(flightDto.getAirlineCode());
+        }
         
         ld.setSegmentType(booking.getSegmentType());
         ld.setStatus(booking.getStatus());
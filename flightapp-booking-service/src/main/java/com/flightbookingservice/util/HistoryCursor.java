@@ -0,0 +1,46 @@
+package com.flightbookingservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for paged booking history: the (createdTime, id) of the last itinerary
+ * returned, encoded as URL-safe Base64 so clients pass it back unchanged.
+ * The timestamp keeps its full precision so rows created in the same second are not skipped.
+ */
+public final class HistoryCursor {
+
+	private final LocalDateTime createdTime;
+	private final int itineraryId;
+
+	public HistoryCursor(LocalDateTime createdTime, int itineraryId) {
+		this.createdTime = createdTime;
+		this.itineraryId = itineraryId;
+	}
+
+	public static HistoryCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+			int sep = raw.indexOf('|');
+			LocalDateTime createdTime = LocalDateTime.parse(raw.substring(0, sep));
+			int id = Integer.parseInt(raw.substring(sep + 1));
+			return new HistoryCursor(createdTime, id);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid history cursor");
+		}
+	}
+
+	public String encode() {
+		String raw = createdTime + "|" + itineraryId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	public LocalDateTime getCreatedTime() {
+		return createdTime;
+	}
+
+	public int getItineraryId() {
+		return itineraryId;
+	}
+}
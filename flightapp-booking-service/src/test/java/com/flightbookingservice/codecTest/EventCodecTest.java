@@ -0,0 +1,121 @@
+package com.flightbookingservice.codecTest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
+
+import com.flightbookingservice.codec.BookingCancelledEventSerializer;
+import com.flightbookingservice.codec.BookingPlacedEventSerializer;
+import com.flightbookingservice.codec.EventCodec;
+import com.flightbookingservice.config.EventSerializerConfig;
+import com.flightbookingservice.dto.BookingCancelledEvent;
+import com.flightbookingservice.dto.BookingPlacedEvent;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+class EventCodecTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Test
+    void cancelledEvent_writtenWithFixedTags() {
+        byte[] data = new BookingCancelledEventSerializer().serialize("t", new BookingCancelledEvent("PNR1A2B3C", 101, -2));
+
+        EventCodec.Reader reader = new EventCodec.Reader(data);
+        assertTrue(reader.next());
+        assertEquals(1, reader.tag());
+        assertEquals("PNR1A2B3C", reader.string());
+        assertTrue(reader.next());
+        assertEquals(2, reader.tag());
+        assertEquals(101, reader.int32());
+        assertTrue(reader.next());
+        assertEquals(3, reader.tag());
+        assertEquals(-2, reader.int32());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void placedEvent_nullFieldsLeftOut_andUnreadFieldsSkipped() {
+        BookingPlacedEvent event = new BookingPlacedEvent();
+        event.setPnr("PNR1");
+        event.setName("Asha Rao");
+        byte[] data = new BookingPlacedEventSerializer().serialize("t", event);
+
+        // A reader that only knows the name still walks past the pnr
+        EventCodec.Reader reader = new EventCodec.Reader(data);
+        String name = null;
+        int fields = 0;
+        while (reader.next()) {
+            fields++;
+            if (reader.tag() == 3) {
+                name = reader.string();
+            }
+        }
+        assertEquals(2, fields);
+        assertEquals("Asha Rao", name);
+    }
+
+    @Test
+    void reader_rejectsUnknownVersionsAndTruncatedRecords() {
+        byte[] data = new BookingCancelledEventSerializer().serialize("t", new BookingCancelledEvent("PNR1", 101, 2));
+
+        byte[] newer = data.clone();
+        newer[1] = (byte) (EventCodec.VERSION + 1);
+        assertThrows(SerializationException.class, () -> new EventCodec.Reader(newer));
+
+        // A signed byte would read these as negative, i.e. older than the current version
+        byte[] highBit = data.clone();
+        highBit[1] = (byte) 0x80;
+        assertThrows(SerializationException.class, () -> new EventCodec.Reader(highBit));
+        byte[] zero = data.clone();
+        zero[1] = 0;
+        assertThrows(SerializationException.class, () -> new EventCodec.Reader(zero));
+
+        byte[] truncated = Arrays.copyOf(data, 5);
+        EventCodec.Reader reader = new EventCodec.Reader(truncated);
+        assertThrows(SerializationException.class, reader::next);
+    }
+
+    @Test
+    void binaryRecord_muchSmallerThanJson() {
+        BookingCancelledEvent event = new BookingCancelledEvent("PNR1A2B3C", 12345, 2);
+
+        byte[] binary = new BookingCancelledEventSerializer().serialize("t", event);
+        byte[] json = objectMapper.writeValueAsBytes(event);
+
+        // 2 header bytes, then 2 + 9, 2 + 3 and 2 + 1 bytes of fields, against 57 bytes of JSON
+        assertEquals(21, binary.length);
+        assertTrue(binary.length * 2 < json.length);
+    }
+
+    @Test
+    void eventSerializer_choosesFormatByTopic() {
+        DelegatingByTopicSerializer serializer = new EventSerializerConfig()
+                .eventSerializer(objectMapper, List.of("booking-cancellation-topic"));
+        BookingCancelledEvent cancelled = new BookingCancelledEvent("PNR1", 101, 2);
+        BookingPlacedEvent placed = new BookingPlacedEvent();
+        placed.setPnr("PNR1");
+
+        assertArrayEquals(new BookingCancelledEventSerializer().serialize("t", cancelled),
+                serializer.serialize("booking-cancellation-topic", new RecordHeaders(), cancelled));
+        assertArrayEquals(objectMapper.writeValueAsBytes(placed), serializer.serialize("booking-placed-topic", new RecordHeaders(), placed));
+    }
+
+    @Test
+    void eventSerializer_unknownBinaryTopic_failsAtStartup() {
+        EventSerializerConfig config = new EventSerializerConfig();
+
+        assertThrows(IllegalStateException.class, () -> config.eventSerializer(objectMapper, List.of("other-topic")));
+    }
+}
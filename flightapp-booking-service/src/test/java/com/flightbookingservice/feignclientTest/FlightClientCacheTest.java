@@ -0,0 +1,140 @@
+package com.flightbookingservice.feignclientTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.flightbookingservice.dto.FlightChangedEvent;
+import com.flightbookingservice.dto.FlightSummaryDto;
+import com.flightbookingservice.feignclient.FlightClient;
+import com.flightbookingservice.feignclient.FlightClientCache;
+import com.flightbookingservice.service.FlightChangeConsumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class FlightClientCacheTest {
+
+    @Mock
+    private FlightClient flightClient;
+
+    private SimpleMeterRegistry registry;
+    private FlightClientCache cache;
+    private FlightSummaryDto flight;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new FlightClientCache(flightClient, registry, 100, 30);
+        flight = new FlightSummaryDto();
+        flight.setFlightId(101);
+        flight.setAvailableSeats(180);
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    @Test
+    void getFresh_concurrentCallers_shareOneRemoteCall() throws Exception {
+        int callers = 20;
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightClient.getFlightById(101)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return flight;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<FlightSummaryDto>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> cache.getFresh(101)));
+        }
+
+        // Hold the remote call open until every other caller has joined it
+        long deadline = System.currentTimeMillis() + 5000;
+        while (counter("booking.flight.lookup.coalesced") < callers - 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<FlightSummaryDto> result : results) {
+            assertSame(flight, result.get(5, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        verify(flightClient, times(1)).getFlightById(101);
+        assertEquals(1, counter("booking.flight.lookup.remote"));
+        assertEquals(callers - 1, counter("booking.flight.lookup.coalesced"));
+    }
+
+    @Test
+    void getFresh_sequentialCalls_eachGoRemoteAndRefreshCache() {
+        when(flightClient.getFlightById(101)).thenReturn(flight);
+
+        cache.getFresh(101);
+        cache.getFresh(101);
+        cache.getFlight(101);
+
+        verify(flightClient, times(2)).getFlightById(101);
+        assertEquals(0, counter("booking.flight.lookup.coalesced"));
+    }
+
+    @Test
+    void getFresh_remoteFailure_isNotCachedOrLeftInFlight() {
+        when(flightClient.getFlightById(101)).thenThrow(new IllegalStateException("flight-service down"))
+                .thenReturn(flight);
+
+        assertThrows(IllegalStateException.class, () -> cache.getFresh(101));
+        assertSame(flight, cache.getFresh(101));
+    }
+
+    @Test
+    void getFlights_fetchesOnlyMissingFlightsInOneCall() {
+        FlightSummaryDto other = new FlightSummaryDto();
+        other.setFlightId(202);
+        when(flightClient.getFlightById(101)).thenReturn(flight);
+        when(flightClient.getFlightsByIds(List.of(202))).thenReturn(Map.of(202, other));
+
+        cache.getFlight(101);
+        Map<Integer, FlightSummaryDto> flights = cache.getFlights(List.of(101, 202));
+
+        assertSame(flight, flights.get(101));
+        assertSame(other, flights.get(202));
+        assertSame(other, cache.getFlight(202));
+        verify(flightClient, times(1)).getFlightsByIds(List.of(202));
+    }
+
+    @Test
+    void getFlight_afterFlightChangedEvent_reloadsEvictedEntry() {
+        FlightSummaryDto updated = new FlightSummaryDto();
+        updated.setFlightId(101);
+        updated.setAvailableSeats(180);
+        when(flightClient.getFlightById(101)).thenReturn(flight).thenReturn(updated);
+
+        assertSame(flight, cache.getFlight(101));
+        assertSame(flight, cache.getFlight(101));
+
+        new FlightChangeConsumer(cache).handleFlightChanged(new FlightChangedEvent(101, "UPDATED"));
+
+        assertSame(updated, cache.getFlight(101));
+        verify(flightClient, times(2)).getFlightById(101);
+    }
+}
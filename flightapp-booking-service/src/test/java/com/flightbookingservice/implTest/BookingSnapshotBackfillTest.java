@@ -0,0 +1,100 @@
+package com.flightbookingservice.implTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightbookingservice.dto.FlightSummaryDto;
+import com.flightbookingservice.entity.Booking;
+import com.flightbookingservice.feignclient.FlightClient;
+import com.flightbookingservice.repository.BookingRepository;
+import com.flightbookingservice.service.BookingSnapshotBackfill;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSnapshotBackfillTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private FlightClient flightClient;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookingSnapshotBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new BookingSnapshotBackfill(bookingRepository, flightClient, transactionTemplate, true, 2);
+    }
+
+    private Booking booking(int id, int flightId) {
+        Booking b = new Booking();
+        b.setId(id);
+        b.setFlightId(flightId);
+        return b;
+    }
+
+    private FlightSummaryDto flight(int flightId) {
+        FlightSummaryDto f = new FlightSummaryDto();
+        f.setFlightId(flightId);
+        f.setAirlineCode("AI");
+        f.setFromAirport("DEL");
+        f.setToAirport("BOM");
+        f.setDepartureTime(LocalDateTime.now().plusDays(1));
+        f.setArrivalTime(LocalDateTime.now().plusDays(1).plusHours(2));
+        f.setPrice(5000);
+        return f;
+    }
+
+    @Test
+    void backfill_fillsEachBatchWithOneFlightLookup() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        Booking first = booking(1, 101);
+        Booking second = booking(2, 101);
+        Booking third = booking(5, 999);
+
+        when(bookingRepository.findByFromAirportIsNullAndIdGreaterThanOrderByIdAsc(0, Limit.of(2))).thenReturn(List.of(first, second));
+        when(bookingRepository.findByFromAirportIsNullAndIdGreaterThanOrderByIdAsc(2, Limit.of(2))).thenReturn(List.of(third));
+        when(bookingRepository.findByFromAirportIsNullAndIdGreaterThanOrderByIdAsc(5, Limit.of(2))).thenReturn(List.of());
+        when(flightClient.getFlightsByIds(Set.of(101))).thenReturn(Map.of(101, flight(101)));
+        when(flightClient.getFlightsByIds(Set.of(999))).thenReturn(Map.of());
+
+        backfill.backfill();
+
+        assertEquals("DEL", first.getFromAirport());
+        assertEquals(5000, second.getPricePaid());
+        // Unknown flight stays on the live fallback path
+        assertNull(third.getFromAirport());
+        verify(flightClient, times(2)).getFlightsByIds(any());
+        verify(bookingRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    void backfill_disabled_doesNothing() {
+        new BookingSnapshotBackfill(bookingRepository, flightClient, transactionTemplate, false, 2).backfill();
+
+        verify(bookingRepository, never()).findByFromAirportIsNullAndIdGreaterThanOrderByIdAsc(anyInt(), eq(Limit.of(2)));
+    }
+}
@@ -0,0 +1,123 @@
+package com.flightbookingservice.outboxTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightbookingservice.entity.OutboxEvent;
+import com.flightbookingservice.outbox.OutboxRelay;
+import com.flightbookingservice.repository.OutboxEventRepository;
+
+@ExtendWith(MockitoExtension.class)
+@EmbeddedKafka(partitions = 3, topics = OutboxRelayKafkaTest.TOPIC)
+class OutboxRelayKafkaTest {
+
+    static final String TOPIC = "booking-cancellation-topic";
+
+    private static final int FLIGHTS = 5;
+    private static final int EVENTS = 300;
+    private static final int BATCH = 100;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void relay_deliversEveryEventInOrderPerFlight(EmbeddedKafkaBroker broker) {
+        Map<String, Object> producerProps = new HashMap<>(KafkaTestUtils.producerProps(broker));
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        producerProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        producerProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        producerProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+        DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(producerProps);
+        KafkaTemplate<String, byte[]> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+        // Outbox rows for cancellations spread over a few flights, read back in id order
+        List<OutboxEvent> rows = new ArrayList<>();
+        for (int n = 0; n < EVENTS; n++) {
+            OutboxEvent e = new OutboxEvent();
+            e.setId((long) n);
+            e.setTopic(TOPIC);
+            e.setMessageKey(String.valueOf(100 + n % FLIGHTS));
+            String json = "{\"flightId\":" + (100 + n % FLIGHTS) + ",\"seq\":" + n + "}";
+            e.setPayload(Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8)));
+            e.setCreatedTime(LocalDateTime.now());
+            rows.add(e);
+        }
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        when(outboxEventRepository.findRelayBatch(Limit.of(BATCH)))
+                .thenReturn(rows.subList(0, 100))
+                .thenReturn(rows.subList(100, 200))
+                .thenReturn(rows.subList(200, 300))
+                .thenReturn(List.of());
+
+        new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionTemplate, BATCH, 10000, 60000).relay();
+        producerFactory.destroy();
+
+        verify(outboxEventRepository, times(3)).deleteAllByIdInBatch(any());
+
+        Map<String, Object> consumerProps = new HashMap<>(KafkaTestUtils.consumerProps(broker, "outbox-relay-test", false));
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+
+            Map<String, List<Integer>> seqByFlight = new HashMap<>();
+            int received = 0;
+            long deadline = System.currentTimeMillis() + 20000;
+            while (received < EVENTS && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, String> r : consumer.poll(Duration.ofMillis(500))) {
+                    String payload = r.value();
+                    int seq = Integer.parseInt(payload.substring(payload.indexOf("\"seq\":") + 6, payload.length() - 1));
+                    seqByFlight.computeIfAbsent(r.key(), k -> new ArrayList<>()).add(seq);
+                    received++;
+                }
+            }
+
+            assertEquals(EVENTS, received);
+            assertEquals(FLIGHTS, seqByFlight.size());
+            for (List<Integer> seqs : seqByFlight.values()) {
+                assertEquals(EVENTS / FLIGHTS, seqs.size());
+                for (int i = 1; i < seqs.size(); i++) {
+                    assertEquals(seqs.get(i - 1) + FLIGHTS, seqs.get(i));
+                }
+            }
+        }
+    }
+}
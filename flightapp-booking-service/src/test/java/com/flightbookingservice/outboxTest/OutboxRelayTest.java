@@ -0,0 +1,177 @@
+package com.flightbookingservice.outboxTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightbookingservice.entity.OutboxEvent;
+import com.flightbookingservice.outbox.OutboxRelay;
+import com.flightbookingservice.repository.OutboxEventRepository;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay relay;
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionTemplate, 3, 1000, 60000);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            inTransaction.set(true);
+            try {
+                return ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null);
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+    }
+
+    private OutboxEvent event(long id, String pnr) {
+        OutboxEvent e = new OutboxEvent();
+        e.setId(id);
+        e.setTopic("booking-cancellation-topic");
+        e.setMessageKey(pnr);
+        e.setPayload(Base64.getEncoder().encodeToString(json(id, pnr)));
+        e.setCreatedTime(LocalDateTime.now());
+        return e;
+    }
+
+    private byte[] json(long id, String pnr) {
+        return ("{\"pnr\":\"" + pnr + "\",\"seq\":" + id + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Test
+    void relay_sendsInIdOrderOutsideTransactionAndDeletesAcknowledged() {
+        OutboxEvent first = event(1, "PNR1");
+        OutboxEvent second = event(2, "PNR1");
+        OutboxEvent third = event(3, "PNR2");
+        when(outboxEventRepository.findRelayBatch(Limit.of(3)))
+                .thenReturn(List.of(first, second, third))
+                .thenReturn(List.of());
+        when(kafkaTemplate.send(any(), any(), any())).thenAnswer(inv -> {
+            // Rows are claimed and committed before Kafka is touched, so no row lock is held here
+            assertFalse(inTransaction.get());
+            return acked();
+        });
+
+        relay.relay();
+
+        InOrder order = inOrder(kafkaTemplate);
+        order.verify(kafkaTemplate).send("booking-cancellation-topic", "PNR1", json(1, "PNR1"));
+        order.verify(kafkaTemplate).send("booking-cancellation-topic", "PNR1", json(2, "PNR1"));
+        order.verify(kafkaTemplate).send("booking-cancellation-topic", "PNR2", json(3, "PNR2"));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(outboxEventRepository, never()).releaseClaims(any(), any());
+        assertNotNull(first.getClaimOwner());
+    }
+
+    @Test
+    void relay_failedSend_releasesItAndEverythingAfterIt() {
+        OutboxEvent first = event(1, "PNR1");
+        OutboxEvent second = event(2, "PNR1");
+        OutboxEvent third = event(3, "PNR1");
+        when(outboxEventRepository.findRelayBatch(Limit.of(3))).thenReturn(List.of(first, second, third));
+        when(kafkaTemplate.send("booking-cancellation-topic", "PNR1", json(1, "PNR1"))).thenReturn(acked());
+        when(kafkaTemplate.send("booking-cancellation-topic", "PNR1", json(2, "PNR1")))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafkaTemplate.send("booking-cancellation-topic", "PNR1", json(3, "PNR1"))).thenReturn(acked());
+
+        relay.relay();
+
+        // Only the prefix before the failure is removed, so the order is kept on the retry
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository).releaseClaims(eq(List.of(2L, 3L)), anyString());
+    }
+
+    @Test
+    void relay_producerBlocked_queuedPrefixStillChecked() {
+        OutboxEvent first = event(1, "PNR1");
+        OutboxEvent second = event(2, "PNR1");
+        when(outboxEventRepository.findRelayBatch(Limit.of(3))).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send("booking-cancellation-topic", "PNR1", json(1, "PNR1"))).thenReturn(acked());
+        when(kafkaTemplate.send("booking-cancellation-topic", "PNR1", json(2, "PNR1")))
+                .thenThrow(new IllegalStateException("max.block.ms exceeded"));
+
+        relay.relay();
+
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository).releaseClaims(eq(List.of(2L)), anyString());
+    }
+
+    @Test
+    void relay_headClaimedByAnotherRelay_waitsBehindIt() {
+        OutboxEvent claimed = event(1, "PNR1");
+        claimed.setClaimOwner("other-instance");
+        claimed.setClaimedTime(LocalDateTime.now());
+        when(outboxEventRepository.findRelayBatch(Limit.of(3))).thenReturn(List.of(claimed, event(2, "PNR1")));
+
+        relay.relay();
+
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+        assertEquals("other-instance", claimed.getClaimOwner());
+    }
+
+    @Test
+    void relay_staleClaim_takenOver() {
+        OutboxEvent abandoned = event(1, "PNR1");
+        abandoned.setClaimOwner("dead-instance");
+        abandoned.setClaimedTime(LocalDateTime.now().minusMinutes(5));
+        when(outboxEventRepository.findRelayBatch(Limit.of(3))).thenReturn(List.of(abandoned));
+        when(kafkaTemplate.send("booking-cancellation-topic", "PNR1", json(1, "PNR1"))).thenReturn(acked());
+
+        relay.relay();
+
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void relay_emptyOutbox_sendsNothing() {
+        when(outboxEventRepository.findRelayBatch(Limit.of(3))).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+}
@@ -0,0 +1,203 @@
+package com.flightbookingservice.repositoryTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import com.flightbookingservice.entity.Booking;
+import com.flightbookingservice.entity.BookingStatus;
+import com.flightbookingservice.entity.Gender;
+import com.flightbookingservice.entity.Itinerary;
+import com.flightbookingservice.entity.MealType;
+import com.flightbookingservice.entity.Passenger;
+import com.flightbookingservice.entity.Role;
+import com.flightbookingservice.entity.TripSegmentType;
+import com.flightbookingservice.entity.User;
+import com.flightbookingservice.repository.ItineraryRepository;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ItineraryRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItineraryRepository itineraryRepository;
+
+    private static final LocalDateTime CREATED_BASE = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void persistHistory(String email, int itineraries) {
+        User user = new User();
+        user.setName("Frequent Flyer");
+        user.setEmail(email);
+        user.setRole(Role.USER);
+        entityManager.persist(user);
+
+        for (int n = 0; n < itineraries; n++) {
+            Itinerary it = new Itinerary();
+            it.setPnr(email + "-" + n);
+            it.setUser(user);
+            // Pairs share a timestamp so the id tie-break is exercised
+            it.setCreatedTime(CREATED_BASE.plusMinutes(n / 2));
+            it.setTotalAmount(10000);
+            it.setStatus(BookingStatus.BOOKED);
+            entityManager.persist(it);
+
+            // Round trip with two passengers per leg
+            for (TripSegmentType segment : List.of(TripSegmentType.OUTBOUND, TripSegmentType.RETURN)) {
+                Booking b = new Booking();
+                b.setItinerary(it);
+                b.setFlightId(100 + n);
+                b.setJourneyDate(LocalDate.now().plusDays(10));
+                b.setSegmentType(segment);
+                b.setStatus(BookingStatus.BOOKED);
+                entityManager.persist(b);
+
+                for (int p = 0; p < 2; p++) {
+                    Passenger pass = new Passenger();
+                    pass.setBooking(b);
+                    pass.setName("Passenger " + p);
+                    pass.setGender(Gender.FEMALE);
+                    pass.setAge(30);
+                    pass.setSeatNumber(segment.name().charAt(0) + "" + p);
+                    pass.setMealType(MealType.VEG);
+                    entityManager.persist(pass);
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long statementsToRender(String email) {
+        statistics.clear();
+        List<Itinerary> history = itineraryRepository.findWithLegsByUserEmail(email);
+        int passengers = 0;
+        for (Itinerary it : history) {
+            it.getUser().getName();
+            for (Booking b : it.getBookings()) {
+                passengers += b.getPassengers().size();
+            }
+        }
+        assertEquals(history.size() * 4, passengers);
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void findWithLegsByUserEmail_queryCountIndependentOfHistorySize() {
+        persistHistory("small@example.com", 2);
+        persistHistory("large@example.com", 30);
+
+        long small = statementsToRender("small@example.com");
+        long large = statementsToRender("large@example.com");
+
+        // One select for itineraries, users and bookings, one batched select for passengers
+        assertEquals(2, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void findWithLegsByUserEmail_noDuplicateItineraries() {
+        persistHistory("dup@example.com", 3);
+
+        List<Itinerary> history = itineraryRepository.findWithLegsByUserEmail("dup@example.com");
+
+        assertEquals(3, history.size());
+        assertEquals(2, history.get(0).getBookings().size());
+    }
+
+    @Test
+    void findWithLegsByPnr_loadsLegsAndPassengers() {
+        persistHistory("pnr@example.com", 1);
+        statistics.clear();
+
+        Optional<Itinerary> it = itineraryRepository.findWithLegsByPnr("pnr@example.com-0");
+
+        assertTrue(it.isPresent());
+        assertEquals("pnr@example.com", it.get().getUser().getEmail());
+        assertEquals(2, it.get().getBookings().get(1).getPassengers().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findLatestByUserEmailBefore_pagesNewestFirstWithoutGapsOrRepeats() {
+        persistHistory("pages@example.com", 25);
+        persistHistory("other@example.com", 5);
+
+        List<Itinerary> page = itineraryRepository.findLatestByUserEmail("pages@example.com", Limit.of(10));
+        Set<Integer> seen = new HashSet<>();
+        LocalDateTime previous = LocalDateTime.MAX;
+        int pages = 0;
+        while (!page.isEmpty()) {
+            pages++;
+            for (Itinerary it : page) {
+                assertTrue(seen.add(it.getId()));
+                assertTrue(!it.getCreatedTime().isAfter(previous));
+                previous = it.getCreatedTime();
+            }
+            Itinerary last = page.get(page.size() - 1);
+            page = itineraryRepository.findLatestByUserEmailBefore("pages@example.com", last.getCreatedTime(), last.getId(),
+                    Limit.of(10));
+        }
+
+        assertEquals(25, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void findLatestByUserEmail_pageQueryCountIndependentOfHistorySize() {
+        persistHistory("big@example.com", 60);
+        statistics.clear();
+
+        List<Itinerary> page = itineraryRepository.findLatestByUserEmail("big@example.com", Limit.of(20));
+        for (Itinerary it : page) {
+            for (Booking b : it.getBookings()) {
+                b.getPassengers().size();
+            }
+        }
+
+        assertEquals(20, page.size());
+        assertEquals("big@example.com-59", page.get(0).getPnr());
+        // Itineraries with users, then one batch each for bookings and passengers
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userHistoryIndex_createdOnUserCreatedTimeAndId() {
+        List<?> columns = entityManager.getEntityManager().createNativeQuery(
+                "select column_name from information_schema.index_columns"
+                        + " where index_name = 'IDX_ITINERARY_USER_CREATED' order by ordinal_position")
+                .getResultList();
+
+        assertEquals(List.of("USER_ID", "CREATED_TIME", "ID"), columns);
+    }
+}
@@ -0,0 +1,68 @@
+package com.flightbookingservice.repositoryTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.flightbookingservice.entity.OutboxEvent;
+import com.flightbookingservice.repository.OutboxEventRepository;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private long persist(String key, String owner) {
+        OutboxEvent e = new OutboxEvent();
+        e.setTopic("booking-cancellation-topic");
+        e.setMessageKey(key);
+        e.setPayload("e30=");
+        e.setCreatedTime(LocalDateTime.now());
+        e.setClaimOwner(owner);
+        e.setClaimedTime(owner == null ? null : LocalDateTime.now());
+        entityManager.persist(e);
+        return e.getId();
+    }
+
+    @Test
+    void findRelayBatch_oldestFirst() {
+        long first = persist("101", null);
+        long second = persist("102", null);
+        persist("103", null);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OutboxEvent> batch = outboxEventRepository.findRelayBatch(Limit.of(2));
+
+        assertEquals(List.of(first, second), batch.stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    void releaseClaims_onlyClearsOwnClaims() {
+        long mine = persist("101", "relay-a");
+        long theirs = persist("102", "relay-b");
+        entityManager.flush();
+
+        assertEquals(1, outboxEventRepository.releaseClaims(List.of(mine, theirs), "relay-a"));
+        entityManager.clear();
+
+        assertNull(entityManager.find(OutboxEvent.class, mine).getClaimOwner());
+        assertEquals("relay-b", entityManager.find(OutboxEvent.class, theirs).getClaimOwner());
+    }
+}
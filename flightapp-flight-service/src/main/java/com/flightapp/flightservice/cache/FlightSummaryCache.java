@@ -0,0 +1,88 @@
+package com.flightapp.flightservice.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
+import com.flightapp.flightservice.event.SeatsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded, TTL-evicted cache of flight summaries for the by-id lookups booking-service makes.
+ * Entries are dropped after every committed seat change or inventory update, so a cached summary
+ * is never older than the last write; the TTL only bounds changes made outside this service.
+ * Hit, miss and eviction counts are published as cache.* metrics under name "flight.summary".
+ * Callers always get a copy, so they may adjust it (e.g. the seat-ledger overlay) freely.
+ */
+@Component
+public class FlightSummaryCache {
+
+	public static final String CACHE_NAME = "flight.summary";
+
+	private final Cache<Integer, FlightSummaryDto> cache;
+
+	public FlightSummaryCache(MeterRegistry meterRegistry,
+			@Value("${flight.summary-cache.max-size:10000}") long maxSize,
+			@Value("${flight.summary-cache.ttl-seconds:60}") long ttlSeconds) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * @param loader called on a miss; exceptions it throws propagate and nothing is cached
+	 */
+	public FlightSummaryDto get(int flightId, IntFunction<FlightSummaryDto> loader) {
+		return copy(cache.get(flightId, loader::apply));
+	}
+
+	/**
+	 * Looks up all ids at once; the misses are handed to the loader in a single call.
+	 * Ids the loader does not return are left out of the result.
+	 */
+	public Map<Integer, FlightSummaryDto> getAll(Collection<Integer> flightIds,
+			Function<Set<? extends Integer>, Map<Integer, FlightSummaryDto>> loader) {
+		Map<Integer, FlightSummaryDto> result = new LinkedHashMap<>();
+		cache.getAll(flightIds, loader).forEach((id, flight) -> result.put(id, copy(flight)));
+		return result;
+	}
+
+	public void invalidate(int flightId) {
+		cache.invalidate(flightId);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSeatsChanged(SeatsChangedEvent event) {
+		cache.invalidate(event.getFlightId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFlightsAdded(FlightsAddedEvent event) {
+		for (Flight flight : event.getFlights()) {
+			cache.invalidate(flight.getId());
+		}
+	}
+
+	private static FlightSummaryDto copy(FlightSummaryDto f) {
+		return new FlightSummaryDto(f.getFlightId(), f.getAirlineName(), f.getAirlineCode(), f.getFromAirport(),
+				f.getToAirport(), f.getDepartureTime(), f.getArrivalTime(), f.getPrice(), f.getAvailableSeats());
+	}
+}
@@ -0,0 +1,53 @@
+package com.flightapp.flightservice.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Reads a {@link BookingCancelledEvent} in the {@link EventCodec} format. JSON objects, which
+ * producers wrote before switching, are read as JSON; anything else is rejected.
+ */
+public class BookingCancelledEventDeserializer implements Deserializer<BookingCancelledEvent> {
+
+	private static final ObjectMapper JSON = JsonMapper.builder()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.build();
+
+	@Override
+	public BookingCancelledEvent deserialize(String topic, byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		if (EventCodec.isJson(data)) {
+			try {
+				return JSON.readValue(data, BookingCancelledEvent.class);
+			} catch (JacksonException e) {
+				throw new SerializationException("Unreadable cancellation event on " + topic, e);
+			}
+		}
+		if (!EventCodec.isBinary(data)) {
+			throw EventCodec.unknownFormat(topic, data);
+		}
+
+		BookingCancelledEvent event = new BookingCancelledEvent();
+		EventCodec.Reader reader = new EventCodec.Reader(data);
+		while (reader.next()) {
+			switch (reader.tag()) {
+			case BookingCancelledEventSerializer.PNR -> event.setPnr(reader.string());
+			case BookingCancelledEventSerializer.FLIGHT_ID -> event.setFlightId(reader.int32());
+			case BookingCancelledEventSerializer.SEATS_TO_RELEASE -> event.setSeatsToRelease(reader.int32());
+			default -> {
+				// Field added by a newer producer
+			}
+			}
+		}
+		return event;
+	}
+}
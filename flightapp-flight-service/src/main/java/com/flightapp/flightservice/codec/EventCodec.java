@@ -0,0 +1,186 @@
+package com.flightapp.flightservice.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Binary wire format for the events services exchange over Kafka. The same class is kept in every
+ * service that reads or writes these events, as the event DTOs are; keep the copies identical.
+ *
+ * <pre>
+ * byte 0     magic 0xFA (never '{', so binary and JSON records can share a topic while services are upgraded)
+ * byte 1     format version, currently 1
+ * then per non-null field:
+ *            tag     1 byte, 1..127, fixed per field for good
+ *            length  unsigned varint, byte length of the value
+ *            value   strings as UTF-8, integers as zigzag varints
+ * </pre>
+ *
+ * Field tags:
+ * BookingPlacedEvent     pnr=1, email=2, name=3;
+ * BookingCancelledEvent  pnr=1, flightId=2, seatsToRelease=3.
+ *
+ * Evolution rules: a new field gets a new tag and is optional, so older readers skip it (every value
+ * is length-prefixed) and newer readers leave it null on older records. A removed field's tag is
+ * never reused and a field never changes type. The version byte only changes for a layout change
+ * readers cannot skip over; a reader rejects version 0 and versions newer than its own.
+ */
+public final class EventCodec {
+
+	public static final byte MAGIC = (byte) 0xFA;
+	public static final byte VERSION = 1;
+
+	private EventCodec() {
+	}
+
+	public static boolean isBinary(byte[] data) {
+		return data != null && data.length >= 2 && data[0] == MAGIC;
+	}
+
+	/**
+	 * Whether the record is a JSON object, the format these events had before this codec.
+	 */
+	public static boolean isJson(byte[] data) {
+		return data != null && data.length >= 2 && data[0] == '{';
+	}
+
+	/**
+	 * Reports a record in neither format rather than guessing at it.
+	 */
+	public static SerializationException unknownFormat(String topic, byte[] data) {
+		String first = data.length == 0 ? "empty record" : String.format("first byte 0x%02x", data[0] & 0xFF);
+		return new SerializationException("Unknown event format on " + topic + " (" + first + ")");
+	}
+
+	public static final class Writer {
+		private byte[] buf = new byte[64];
+		private int pos;
+
+		public Writer() {
+			buf[pos++] = MAGIC;
+			buf[pos++] = VERSION;
+		}
+
+		public Writer string(int tag, String value) {
+			if (value != null) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				ensure(bytes.length + 6);
+				buf[pos++] = (byte) tag;
+				writeVarint(bytes.length);
+				System.arraycopy(bytes, 0, buf, pos, bytes.length);
+				pos += bytes.length;
+			}
+			return this;
+		}
+
+		public Writer int32(int tag, Integer value) {
+			if (value != null) {
+				int zigzag = (value << 1) ^ (value >> 31);
+				ensure(7);
+				buf[pos++] = (byte) tag;
+				buf[pos++] = (byte) varintSize(zigzag);
+				writeVarint(zigzag);
+			}
+			return this;
+		}
+
+		public byte[] toByteArray() {
+			return Arrays.copyOf(buf, pos);
+		}
+
+		private void writeVarint(int value) {
+			while ((value & ~0x7F) != 0) {
+				buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buf[pos++] = (byte) value;
+		}
+
+		private static int varintSize(int value) {
+			int size = 1;
+			while ((value & ~0x7F) != 0) {
+				value >>>= 7;
+				size++;
+			}
+			return size;
+		}
+
+		private void ensure(int extra) {
+			if (pos + extra > buf.length) {
+				buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+			}
+		}
+	}
+
+	/**
+	 * Walks the fields of a record: call {@link #next()} until it returns false and read the value of
+	 * the fields you know by tag. Fields left unread are skipped.
+	 */
+	public static final class Reader {
+		private final byte[] data;
+		private int pos;
+		private int tag;
+		private int valueStart;
+		private int valueEnd;
+
+		public Reader(byte[] data) {
+			if (!isBinary(data)) {
+				throw new SerializationException("Not a binary event record");
+			}
+			// Unsigned, so a corrupt high byte reads as an unknown version rather than an old one
+			int version = data[1] & 0xFF;
+			if (version < 1 || version > VERSION) {
+				throw new SerializationException("Unsupported event format version " + version);
+			}
+			this.data = data;
+			this.pos = 2;
+			this.valueEnd = 2;
+		}
+
+		public boolean next() {
+			pos = valueEnd;
+			if (pos >= data.length) {
+				return false;
+			}
+			tag = data[pos++];
+			int length = readVarint();
+			valueStart = pos;
+			valueEnd = pos + length;
+			if (length < 0 || valueEnd > data.length) {
+				throw new SerializationException("Truncated event record at field " + tag);
+			}
+			return true;
+		}
+
+		public int tag() {
+			return tag;
+		}
+
+		public String string() {
+			return new String(data, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8);
+		}
+
+		public int int32() {
+			pos = valueStart;
+			int zigzag = readVarint();
+			return (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+
+		private int readVarint() {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				if (pos >= data.length) {
+					throw new SerializationException("Truncated event record");
+				}
+				byte b = data[pos++];
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new SerializationException("Malformed varint in event record");
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.flightapp.flightservice.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded pool on which the cancellation consumer applies the flights of one poll in parallel.
+ * When the queue is full the listener thread runs the task itself.
+ */
+@Configuration
+public class InventoryExecutorConfig {
+
+	public static final String INVENTORY_EXECUTOR = "inventoryWorkerExecutor";
+
+	@Bean(name = INVENTORY_EXECUTOR)
+	public Executor inventoryWorkerExecutor(@Value("${flight.inventory-consumer.concurrency:1}") int concurrency,
+			@Value("${flight.inventory-consumer.queue-capacity:500}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(Math.max(1, concurrency));
+		executor.setMaxPoolSize(Math.max(1, concurrency));
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("inventory-worker-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+}
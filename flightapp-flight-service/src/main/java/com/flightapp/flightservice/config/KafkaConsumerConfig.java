@@ -0,0 +1,28 @@
+package com.flightapp.flightservice.config;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.flightapp.flightservice.service.InventoryConsumer;
+
+/**
+ * Error handling for the cancellation listener. When it reports the first record it could not
+ * finish, offsets before that record are committed and the rest of the poll is redelivered;
+ * a record that keeps failing is sent to the cancellation dead-letter topic instead of being dropped.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+	@Bean
+	public CommonErrorHandler kafkaErrorHandler(KafkaTemplate<Object, Object> kafkaTemplate) {
+		DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+				(record, e) -> new TopicPartition(InventoryConsumer.DLT_TOPIC, -1));
+		return new DefaultErrorHandler(recoverer, new FixedBackOff(1000L, 2));
+	}
+}
@@ -0,0 +1,32 @@
+package com.flightapp.flightservice.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded pool for search work that can run in parallel, such as the outbound and return
+ * lookups of a round-trip search. When the queue is full the caller runs the task itself.
+ */
+@Configuration
+public class SearchExecutorConfig {
+
+	public static final String SEARCH_EXECUTOR = "flightSearchExecutor";
+
+	@Bean(name = SEARCH_EXECUTOR)
+	public Executor flightSearchExecutor(@Value("${flight.search.executor.pool-size:8}") int poolSize,
+			@Value("${flight.search.executor.queue-capacity:100}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("flight-search-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+}
@@ -0,0 +1,39 @@
+package com.flightapp.flightservice.controller;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.flightapp.flightservice.dto.response.DeadLetterCancellationDto;
+import com.flightapp.flightservice.service.DeadLetterService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/v1.0/flight/admin/dead-letters")
+public class DeadLetterController {
+	private final DeadLetterService deadLetterService;
+
+	public DeadLetterController(DeadLetterService deadLetterService) {
+		this.deadLetterService = deadLetterService;
+	}
+	
+	@GetMapping
+	public List<DeadLetterCancellationDto> list(@RequestParam(defaultValue = "false") boolean includeReplayed,
+			@RequestParam(defaultValue = "100") int limit) {
+		log.info("GET /api/v1.0/flight/admin/dead-letters includeReplayed={} limit={}", includeReplayed, limit);
+		return deadLetterService.list(includeReplayed, limit);
+	}
+	
+	@PostMapping("{id}/replay")
+	public DeadLetterCancellationDto replay(@PathVariable int id) {
+		log.info("POST /api/v1.0/flight/admin/dead-letters/{}/replay", id);
+		return deadLetterService.replay(id);
+	}
+}
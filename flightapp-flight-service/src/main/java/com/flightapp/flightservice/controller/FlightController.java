@@ -1,29 +1,44 @@
 package com.flightapp.flightservice.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.flightapp.flightservice.dto.request.ConnectionSearchRequest;
 import com.flightapp.flightservice.dto.request.FlightSearchRequest;
+import com.flightapp.flightservice.dto.response.FlightSearchPage;
+import com.flightapp.flightservice.dto.response.FlightSearchResponse;
 import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.dto.response.ItineraryOptionDto;
 import com.flightapp.flightservice.service.FlightService;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 @Slf4j
 @RequestMapping("/api/v1.0/flight")
 public class FlightController {
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	
 	private final FlightService flightService;
+	private final ObjectMapper objectMapper;
 	
-	public FlightController(FlightService flightService) {
+	public FlightController(FlightService flightService, ObjectMapper objectMapper) {
 		this.flightService = flightService;
+		this.objectMapper = objectMapper;
 	}
 	
 	@PostMapping("/search")
@@ -32,4 +47,42 @@ public class FlightController {
 		log.info("POST /api/v1.0/flight/search from={} to={} date={} tripType={}", req.getFrom(), req.getTo(), req.getJourneyDate(), req.getTripType());
 		return flightService.searchFlights(req);
 	}
+	
+	@PostMapping("/search/page")
+	public FlightSearchPage searchFlightsPage(@RequestBody @Valid FlightSearchRequest req,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size){
+		log.info("POST /api/v1.0/flight/search/page from={} to={} date={} size={}", req.getFrom(), req.getTo(), req.getJourneyDate(), size);
+		return flightService.searchFlightsPage(req, cursor, size);
+	}
+	
+	/**
+	 * Writes one JSON flight per line as rows are read, so memory stays flat however many flights match.
+	 */
+	@PostMapping("/search/stream")
+	public ResponseEntity<StreamingResponseBody> streamFlights(@RequestBody @Valid FlightSearchRequest req){
+		log.info("POST /api/v1.0/flight/search/stream from={} to={} date={}", req.getFrom(), req.getTo(), req.getJourneyDate());
+		StreamingResponseBody body = out -> flightService.streamFlights(req, flight -> {
+			try {
+				out.write(objectMapper.writeValueAsBytes(flight));
+				out.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return ResponseEntity.ok().contentType(NDJSON).body(body);
+	}
+	
+	@PostMapping("/search/round-trip")
+	@ResponseStatus(code = HttpStatus.CREATED)
+	public FlightSearchResponse searchRoundTrip(@RequestBody @Valid FlightSearchRequest req){
+		log.info("POST /api/v1.0/flight/search/round-trip from={} to={} date={} returnDate={}", req.getFrom(), req.getTo(), req.getJourneyDate(), req.getReturnDate());
+		return flightService.searchRoundTrip(req);
+	}
+	
+	@PostMapping("/search/connections")
+	@ResponseStatus(code = HttpStatus.CREATED)
+	public List<ItineraryOptionDto> searchConnections(@RequestBody @Valid ConnectionSearchRequest req){
+		log.info("POST /api/v1.0/flight/search/connections from={} to={} date={} maxStops={}", req.getFrom(), req.getTo(), req.getJourneyDate(), req.getMaxStops());
+		return flightService.searchConnections(req);
+	}
 }
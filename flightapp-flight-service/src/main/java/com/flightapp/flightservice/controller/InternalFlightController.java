@@ -1,15 +1,22 @@
 package com.flightapp.flightservice.controller;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.flightapp.flightservice.dto.request.SeatReservationRequest;
 import com.flightapp.flightservice.dto.response.FlightSummaryDto;
 import com.flightapp.flightservice.service.FlightService;
 
+import jakarta.validation.Valid;
+
 @RestController
 @RequestMapping("/api/internal/flight")
 public class InternalFlightController {
@@ -19,6 +26,11 @@ public class InternalFlightController {
 		this.flightService = flightService;
 	}
 	
+	@GetMapping("/batch")
+	public Map<Integer, FlightSummaryDto> getFlightsByIds(@RequestParam List<Integer> ids) {
+		return flightService.getFlightsByIds(ids);
+	}
+	
 	@GetMapping("/{id}")
     public FlightSummaryDto getFlightById(@PathVariable int id) {
         return flightService.getFlightById(id);
@@ -28,4 +40,9 @@ public class InternalFlightController {
     public void updateSeats(@PathVariable int id, @RequestParam int count) {
         flightService.updateSeats(id, count);
     }
+
+    @PutMapping("/seats/reserve")
+    public void reserveSeats(@RequestBody @Valid SeatReservationRequest req) {
+        flightService.reserveSeats(req);
+    }
 }
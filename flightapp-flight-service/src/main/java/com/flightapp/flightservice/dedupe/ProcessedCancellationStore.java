@@ -0,0 +1,103 @@
+package com.flightapp.flightservice.dedupe;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.flightapp.flightservice.entity.ProcessedCancellation;
+import com.flightapp.flightservice.repository.ProcessedCancellationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers which (pnr, flightId) cancellations have already released their seats.
+ * The processed_cancellation table is the source of truth and is written in the same transaction
+ * as the seat release. A bounded in-memory set of recent keys sits in front of it, so a redelivered
+ * event is normally rejected without touching the database; only keys missing from memory are
+ * looked up, in one query per batch. Rows older than the TTL are pruned on a schedule.
+ */
+@Component
+@Slf4j
+public class ProcessedCancellationStore {
+
+	private final ProcessedCancellationRepository repository;
+	private final Cache<String, Boolean> recent;
+	private final Duration ttl;
+
+	public ProcessedCancellationStore(ProcessedCancellationRepository repository,
+			@Value("${flight.cancellation-dedupe.max-size:100000}") long maxSize,
+			@Value("${flight.cancellation-dedupe.ttl-hours:168}") long ttlHours) {
+		this.repository = repository;
+		this.ttl = Duration.ofHours(ttlHours);
+		this.recent = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.build();
+	}
+
+	/**
+	 * @return the keys from the given ones that have already been processed
+	 */
+	public Set<String> findProcessed(Collection<String> keys) {
+		Set<String> processed = new HashSet<>();
+		List<String> unknown = new ArrayList<>();
+		for (String key : keys) {
+			if (recent.getIfPresent(key) != null) {
+				processed.add(key);
+			} else {
+				unknown.add(key);
+			}
+		}
+		if (!unknown.isEmpty()) {
+			for (String key : repository.findExistingKeys(unknown)) {
+				processed.add(key);
+				recent.put(key, Boolean.TRUE);
+			}
+		}
+		return processed;
+	}
+
+	/**
+	 * Records the keys as processed. Must run in the transaction that releases the seats; the keys
+	 * only enter the in-memory set once that transaction has committed.
+	 */
+	public void markProcessed(Collection<String> keys) {
+		LocalDateTime now = LocalDateTime.now();
+		List<ProcessedCancellation> rows = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			rows.add(new ProcessedCancellation(key, now));
+		}
+		repository.saveAll(rows);
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					keys.forEach(key -> recent.put(key, Boolean.TRUE));
+				}
+			});
+		} else {
+			keys.forEach(key -> recent.put(key, Boolean.TRUE));
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${flight.cancellation-dedupe.prune-interval-ms:3600000}")
+	public void prune() {
+		int removed = repository.deleteProcessedBefore(LocalDateTime.now().minus(ttl));
+		if (removed > 0) {
+			log.info("Pruned {} processed cancellation keys older than {}", removed, ttl);
+		}
+	}
+}
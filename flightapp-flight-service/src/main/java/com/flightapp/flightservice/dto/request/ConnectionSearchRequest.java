@@ -0,0 +1,105 @@
+package com.flightapp.flightservice.dto.request;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.flightapp.flightservice.entity.ConnectionSort;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class ConnectionSearchRequest {
+	
+	@NotBlank
+	private String from;
+	
+	@NotBlank
+	private String to;
+	
+	@NotNull
+	@DateTimeFormat(pattern = "dd/mm/yy hh:mm a")
+	private LocalDate journeyDate;
+	
+	@Min(0)
+	@Max(2)
+	private int maxStops = 1;
+	
+	@Min(0)
+	private int minConnectionMinutes = 45;
+	
+	@Min(1)
+	private int maxConnectionMinutes = 360;
+	
+	private ConnectionSort sortBy = ConnectionSort.PRICE;
+	
+	@Min(1)
+	@Max(50)
+	private int limit = 10;
+
+	public String getFrom() {
+		return from;
+	}
+
+	public void setFrom(String from) {
+		this.from = from;
+	}
+
+	public String getTo() {
+		return to;
+	}
+
+	public void setTo(String to) {
+		this.to = to;
+	}
+
+	public LocalDate getJourneyDate() {
+		return journeyDate;
+	}
+
+	public void setJourneyDate(LocalDate journeyDate) {
+		this.journeyDate = journeyDate;
+	}
+
+	public int getMaxStops() {
+		return maxStops;
+	}
+
+	public void setMaxStops(int maxStops) {
+		this.maxStops = maxStops;
+	}
+
+	public int getMinConnectionMinutes() {
+		return minConnectionMinutes;
+	}
+
+	public void setMinConnectionMinutes(int minConnectionMinutes) {
+		this.minConnectionMinutes = minConnectionMinutes;
+	}
+
+	public int getMaxConnectionMinutes() {
+		return maxConnectionMinutes;
+	}
+
+	public void setMaxConnectionMinutes(int maxConnectionMinutes) {
+		this.maxConnectionMinutes = maxConnectionMinutes;
+	}
+
+	public ConnectionSort getSortBy() {
+		return sortBy;
+	}
+
+	public void setSortBy(ConnectionSort sortBy) {
+		this.sortBy = sortBy;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public void setLimit(int limit) {
+		this.limit = limit;
+	}
+}
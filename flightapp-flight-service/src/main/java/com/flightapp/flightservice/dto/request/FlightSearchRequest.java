@@ -1,13 +1,19 @@
 package com.flightapp.flightservice.dto.request;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
+import com.flightapp.flightservice.entity.FlightSort;
 import com.flightapp.flightservice.entity.TripType;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 public class FlightSearchRequest {
 	
@@ -26,6 +32,29 @@ public class FlightSearchRequest {
 	
 	@DateTimeFormat(pattern = "dd/mm/yy hh:mm a")
 	private LocalDate returnDate;
+	
+	// Optional filters, unset means no filter
+	@PositiveOrZero
+	private Integer minPrice;
+	
+	@PositiveOrZero
+	private Integer maxPrice;
+	
+	// Departure window on the journey date, from inclusive and to exclusive
+	private LocalTime departureFrom;
+	
+	private LocalTime departureTo;
+	
+	private String airlineCode;
+	
+	@Positive
+	private Integer minSeats;
+	
+	private FlightSort sortBy;
+	
+	@Min(1)
+	@Max(100)
+	private Integer limit;
 
 	public String getFrom() {
 		return from;
@@ -66,4 +95,68 @@ public class FlightSearchRequest {
 	public void setReturnDate(LocalDate returnDate) {
 		this.returnDate = returnDate;
 	}
+
+	public Integer getMinPrice() {
+		return minPrice;
+	}
+
+	public void setMinPrice(Integer minPrice) {
+		this.minPrice = minPrice;
+	}
+
+	public Integer getMaxPrice() {
+		return maxPrice;
+	}
+
+	public void setMaxPrice(Integer maxPrice) {
+		this.maxPrice = maxPrice;
+	}
+
+	public LocalTime getDepartureFrom() {
+		return departureFrom;
+	}
+
+	public void setDepartureFrom(LocalTime departureFrom) {
+		this.departureFrom = departureFrom;
+	}
+
+	public LocalTime getDepartureTo() {
+		return departureTo;
+	}
+
+	public void setDepartureTo(LocalTime departureTo) {
+		this.departureTo = departureTo;
+	}
+
+	public String getAirlineCode() {
+		return airlineCode;
+	}
+
+	public void setAirlineCode(String airlineCode) {
+		this.airlineCode = airlineCode;
+	}
+
+	public Integer getMinSeats() {
+		return minSeats;
+	}
+
+	public void setMinSeats(Integer minSeats) {
+		this.minSeats = minSeats;
+	}
+
+	public FlightSort getSortBy() {
+		return sortBy;
+	}
+
+	public void setSortBy(FlightSort sortBy) {
+		this.sortBy = sortBy;
+	}
+
+	public Integer getLimit() {
+		return limit;
+	}
+
+	public void setLimit(Integer limit) {
+		this.limit = limit;
+	}
 }
@@ -0,0 +1,37 @@
+package com.flightapp.flightservice.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class SeatReservationItemDto {
+	
+	@NotNull
+	private Integer flightId;
+	
+	@Positive
+	private int seats;
+	
+	public SeatReservationItemDto() {
+	}
+
+	public SeatReservationItemDto(Integer flightId, int seats) {
+		this.flightId = flightId;
+		this.seats = seats;
+	}
+
+	public Integer getFlightId() {
+		return flightId;
+	}
+
+	public void setFlightId(Integer flightId) {
+		this.flightId = flightId;
+	}
+
+	public int getSeats() {
+		return seats;
+	}
+
+	public void setSeats(int seats) {
+		this.seats = seats;
+	}
+}
@@ -0,0 +1,21 @@
+package com.flightapp.flightservice.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+public class SeatReservationRequest {
+	
+	@NotEmpty
+	@Valid
+	private List<SeatReservationItemDto> legs;
+
+	public List<SeatReservationItemDto> getLegs() {
+		return legs;
+	}
+
+	public void setLegs(List<SeatReservationItemDto> legs) {
+		this.legs = legs;
+	}
+}
@@ -0,0 +1,21 @@
+package com.flightapp.flightservice.dto.response;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetterCancellationDto {
+	private int id;
+	private String pnr;
+	private Integer flightId;
+	private Integer seatsToRelease;
+	private String sourceTopic;
+	private String error;
+	private LocalDateTime failedTime;
+	private LocalDateTime replayedTime;
+}
@@ -0,0 +1,13 @@
+package com.flightapp.flightservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FlightChangedEvent {
+	private Integer flightId;
+	private String changeType;
+}
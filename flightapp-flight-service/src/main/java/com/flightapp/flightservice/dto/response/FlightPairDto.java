@@ -0,0 +1,18 @@
+package com.flightapp.flightservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightPairDto {
+
+	private FlightSummaryDto outbound;
+	
+	private FlightSummaryDto inbound;
+	
+	private int totalPrice;
+
+}
@@ -0,0 +1,19 @@
+package com.flightapp.flightservice.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightSearchPage {
+
+	private List<FlightSummaryDto> flights;
+	
+	// Null on the last page
+	private String nextCursor;
+
+}
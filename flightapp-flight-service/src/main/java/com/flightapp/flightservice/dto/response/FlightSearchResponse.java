@@ -0,0 +1,24 @@
+package com.flightapp.flightservice.dto.response;
+
+import java.util.List;
+
+import com.flightapp.flightservice.entity.TripType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightSearchResponse {
+
+	private TripType tripType;
+	
+	private List<FlightSummaryDto> outboundFlights;
+	
+	private List<FlightSummaryDto> returnFlights;
+	
+	private List<FlightPairDto> cheapestPairs;
+
+}
@@ -0,0 +1,31 @@
+package com.flightapp.flightservice.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItineraryOptionDto {
+
+	private List<FlightSummaryDto> legs;
+	
+	private int stops;
+	
+	private int totalPrice;
+	
+	private long totalDurationMinutes;
+	
+	@DateTimeFormat(pattern = "dd/mm/yy hh:mm a")
+	private LocalDateTime departureTime;
+	
+	@DateTimeFormat(pattern = "dd/mm/yy hh:mm a")
+	private LocalDateTime arrivalTime;
+
+}
@@ -0,0 +1,6 @@
+package com.flightapp.flightservice.entity;
+
+public enum ConnectionSort {
+	PRICE,
+	DURATION
+}
@@ -0,0 +1,102 @@
+package com.flightapp.flightservice.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A cancellation event that still failed after its last retry. Kept until an admin replays it;
+ * replayedTime is set when it has been sent back to the cancellation topic.
+ */
+@Entity
+public class DeadLetterCancellation {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private int id;
+	
+	private String pnr;
+	
+	private Integer flightId;
+	
+	private Integer seatsToRelease;
+	
+	private String sourceTopic;
+	
+	@Column(length = 1000)
+	private String error;
+	
+	@NotNull
+	private LocalDateTime failedTime;
+	
+	private LocalDateTime replayedTime;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getPnr() {
+		return pnr;
+	}
+
+	public void setPnr(String pnr) {
+		this.pnr = pnr;
+	}
+
+	public Integer getFlightId() {
+		return flightId;
+	}
+
+	public void setFlightId(Integer flightId) {
+		this.flightId = flightId;
+	}
+
+	public Integer getSeatsToRelease() {
+		return seatsToRelease;
+	}
+
+	public void setSeatsToRelease(Integer seatsToRelease) {
+		this.seatsToRelease = seatsToRelease;
+	}
+
+	public String getSourceTopic() {
+		return sourceTopic;
+	}
+
+	public void setSourceTopic(String sourceTopic) {
+		this.sourceTopic = sourceTopic;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	public LocalDateTime getFailedTime() {
+		return failedTime;
+	}
+
+	public void setFailedTime(LocalDateTime failedTime) {
+		this.failedTime = failedTime;
+	}
+
+	public LocalDateTime getReplayedTime() {
+		return replayedTime;
+	}
+
+	public void setReplayedTime(LocalDateTime replayedTime) {
+		this.replayedTime = replayedTime;
+	}
+}
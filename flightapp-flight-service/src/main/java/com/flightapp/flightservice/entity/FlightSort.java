@@ -0,0 +1,7 @@
+package com.flightapp.flightservice.entity;
+
+public enum FlightSort {
+	PRICE,
+	DEPARTURE,
+	DURATION
+}
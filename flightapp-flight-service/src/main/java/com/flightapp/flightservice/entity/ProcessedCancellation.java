@@ -0,0 +1,69 @@
+package com.flightapp.flightservice.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A booking cancellation whose seats have been given back, keyed by "pnr:flightId".
+ * Rows are only ever inserted, so the entity always reports itself as new and saving it
+ * is a plain insert without a lookup first. Pruned by processedTime once past the dedupe TTL.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_processed_cancellation_time", columnList = "processedTime"))
+public class ProcessedCancellation implements Persistable<String> {
+	
+	@Id
+	@NotBlank
+	private String eventKey;
+	
+	@NotNull
+	private LocalDateTime processedTime;
+	
+	public ProcessedCancellation() {
+	}
+	
+	public ProcessedCancellation(String eventKey, LocalDateTime processedTime) {
+		this.eventKey = eventKey;
+		this.processedTime = processedTime;
+	}
+
+	public static String key(String pnr, int flightId) {
+		return pnr + ":" + flightId;
+	}
+
+	@Override
+	public String getId() {
+		return eventKey;
+	}
+
+	@Override
+	@Transient
+	public boolean isNew() {
+		return true;
+	}
+
+	public String getEventKey() {
+		return eventKey;
+	}
+
+	public void setEventKey(String eventKey) {
+		this.eventKey = eventKey;
+	}
+
+	public LocalDateTime getProcessedTime() {
+		return processedTime;
+	}
+
+	public void setProcessedTime(LocalDateTime processedTime) {
+		this.processedTime = processedTime;
+	}
+}
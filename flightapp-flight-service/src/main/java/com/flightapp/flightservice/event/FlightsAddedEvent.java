@@ -0,0 +1,21 @@
+package com.flightapp.flightservice.event;
+
+import java.util.List;
+
+import com.flightapp.flightservice.entity.Flight;
+
+/**
+ * Published after new flights have been saved through the admin inventory API.
+ */
+public class FlightsAddedEvent {
+
+	private final List<Flight> flights;
+
+	public FlightsAddedEvent(List<Flight> flights) {
+		this.flights = flights;
+	}
+
+	public List<Flight> getFlights() {
+		return flights;
+	}
+}
@@ -0,0 +1,25 @@
+package com.flightapp.flightservice.event;
+
+/**
+ * Published whenever the available seat count of a flight changes.
+ * A negative delta means seats were reserved, a positive one means they were released.
+ */
+public class SeatsChangedEvent {
+
+	private final int flightId;
+
+	private final int delta;
+
+	public SeatsChangedEvent(int flightId, int delta) {
+		this.flightId = flightId;
+		this.delta = delta;
+	}
+
+	public int getFlightId() {
+		return flightId;
+	}
+
+	public int getDelta() {
+		return delta;
+	}
+}
@@ -3,6 +3,7 @@ package com.flightapp.flightservice.implimentation;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,6 +13,7 @@ import com.flightapp.flightservice.dto.response.AirlineInventoryResponse;
 import com.flightapp.flightservice.entity.Airline;
 import com.flightapp.flightservice.entity.Flight;
 import com.flightapp.flightservice.entity.FlightStatus;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
 import com.flightapp.flightservice.exception.ResourceNotFoundException;
 import com.flightapp.flightservice.repository.AirlineRepository;
 import com.flightapp.flightservice.repository.FlightRepository;
@@ -24,10 +26,12 @@ import lombok.extern.slf4j.Slf4j;
 public class AdminServiceImpl implements AdminService{
 	private final AirlineRepository airlineRepositroy;
 	private final FlightRepository flightRepository;
+	private final ApplicationEventPublisher eventPublisher;
 	
-	public AdminServiceImpl(AirlineRepository airlineRepositroy, FlightRepository flightRepository) {
+	public AdminServiceImpl(AirlineRepository airlineRepositroy, FlightRepository flightRepository, ApplicationEventPublisher eventPublisher) {
 		this.airlineRepositroy = airlineRepositroy;
 		this.flightRepository = flightRepository;
+		this.eventPublisher = eventPublisher;
 	}
 
 	@Override
@@ -58,6 +62,7 @@ public class AdminServiceImpl implements AdminService{
 		}
 		
 		List<Flight> savedFlights = flightRepository.saveAll(flightsToSave);
+		eventPublisher.publishEvent(new FlightsAddedEvent(savedFlights));
 		
 		List<Integer> flightIds = savedFlights.stream().map(flight->flight.getId()).toList();
 		
@@ -0,0 +1,86 @@
+package com.flightapp.flightservice.implimentation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+import com.flightapp.flightservice.dto.response.DeadLetterCancellationDto;
+import com.flightapp.flightservice.entity.DeadLetterCancellation;
+import com.flightapp.flightservice.exception.ResourceNotFoundException;
+import com.flightapp.flightservice.repository.DeadLetterCancellationRepository;
+import com.flightapp.flightservice.service.DeadLetterService;
+import com.flightapp.flightservice.service.InventoryConsumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class DeadLetterServiceImpl implements DeadLetterService {
+	
+	private static final int MAX_LIST_SIZE = 500;
+	private static final int MAX_ERROR_LENGTH = 1000;
+	
+	private final DeadLetterCancellationRepository deadLetterRepository;
+	private final KafkaTemplate<String, BookingCancelledEvent> kafkaTemplate;
+	
+	public DeadLetterServiceImpl(DeadLetterCancellationRepository deadLetterRepository,
+			KafkaTemplate<String, BookingCancelledEvent> kafkaTemplate) {
+		this.deadLetterRepository = deadLetterRepository;
+		this.kafkaTemplate = kafkaTemplate;
+	}
+
+	@Override
+	@Transactional
+	public void record(BookingCancelledEvent event, String sourceTopic, String error) {
+		DeadLetterCancellation entry = new DeadLetterCancellation();
+		if (event != null) {
+			entry.setPnr(event.getPnr());
+			entry.setFlightId(event.getFlightId());
+			entry.setSeatsToRelease(event.getSeatsToRelease());
+		}
+		entry.setSourceTopic(sourceTopic);
+		entry.setError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+		entry.setFailedTime(LocalDateTime.now());
+		deadLetterRepository.save(entry);
+		
+		log.warn("Dead-lettered cancellation pnr={} flightId={}: {}", entry.getPnr(), entry.getFlightId(), entry.getError());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<DeadLetterCancellationDto> list(boolean includeReplayed, int limit) {
+		Limit capped = Limit.of(Math.max(1, Math.min(limit, MAX_LIST_SIZE)));
+		List<DeadLetterCancellation> entries = includeReplayed
+				? deadLetterRepository.findAllByOrderByIdAsc(capped)
+				: deadLetterRepository.findByReplayedTimeIsNullOrderByIdAsc(capped);
+		return entries.stream().map(this::toDto).toList();
+	}
+
+	@Override
+	@Transactional
+	public DeadLetterCancellationDto replay(int id) {
+		DeadLetterCancellation entry = deadLetterRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Dead-lettered cancellation not found with id: " + id));
+		if (entry.getPnr() == null || entry.getFlightId() == null || entry.getSeatsToRelease() == null) {
+			throw new IllegalArgumentException("Dead-lettered cancellation " + id + " has no readable event to replay");
+		}
+		
+		// Sent back through the normal path; the dedupe store drops it if the seats were released meanwhile
+		BookingCancelledEvent event = new BookingCancelledEvent(entry.getPnr(), entry.getFlightId(), entry.getSeatsToRelease());
+		kafkaTemplate.send(InventoryConsumer.TOPIC, String.valueOf(entry.getFlightId()), event).join();
+		entry.setReplayedTime(LocalDateTime.now());
+		
+		log.info("Replayed dead-lettered cancellation id={} pnr={} flightId={}", id, entry.getPnr(), entry.getFlightId());
+		return toDto(entry);
+	}
+	
+	private DeadLetterCancellationDto toDto(DeadLetterCancellation entry) {
+		return new DeadLetterCancellationDto(entry.getId(), entry.getPnr(), entry.getFlightId(), entry.getSeatsToRelease(),
+				entry.getSourceTopic(), entry.getError(), entry.getFailedTime(), entry.getReplayedTime());
+	}
+}
@@ -1,31 +1,93 @@
 package com.flightapp.flightservice.implimentation;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.flightapp.flightservice.cache.FlightSummaryCache;
+import com.flightapp.flightservice.config.SearchExecutorConfig;
+import com.flightapp.flightservice.dto.request.ConnectionSearchRequest;
 import com.flightapp.flightservice.dto.request.FlightSearchRequest;
+import com.flightapp.flightservice.dto.request.SeatReservationItemDto;
+import com.flightapp.flightservice.dto.request.SeatReservationRequest;
+import com.flightapp.flightservice.dto.response.FlightPairDto;
+import com.flightapp.flightservice.dto.response.FlightSearchPage;
+import com.flightapp.flightservice.dto.response.FlightSearchResponse;
 import com.flightapp.flightservice.dto.response.FlightSummaryDto;
-import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.dto.response.ItineraryOptionDto;
+import com.flightapp.flightservice.entity.ConnectionSort;
+import com.flightapp.flightservice.entity.FlightSort;
 import com.flightapp.flightservice.entity.FlightStatus;
+import com.flightapp.flightservice.entity.TripType;
+import com.flightapp.flightservice.event.SeatsChangedEvent;
 import com.flightapp.flightservice.exception.ResourceNotFoundException;
 import com.flightapp.flightservice.exception.SeatNotAvailableException;
+import com.flightapp.flightservice.index.ConnectionSearchEngine;
+import com.flightapp.flightservice.index.FlightSearchIndex;
+import com.flightapp.flightservice.ledger.SeatLedger;
 import com.flightapp.flightservice.repository.FlightRepository;
 import com.flightapp.flightservice.service.FlightService;
+import com.flightapp.flightservice.util.SearchCursor;
+import com.flightapp.flightservice.util.TopK;
 
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
 public class FlightServiceImpl implements FlightService{
+	private static final int CHEAPEST_PAIRS = 5;
+	private static final int MAX_PAGE_SIZE = 100;
+	
+	private static final Comparator<FlightSummaryDto> BY_DURATION = Comparator
+			.comparing((FlightSummaryDto f) -> Duration.between(f.getDepartureTime(), f.getArrivalTime()))
+			.thenComparing(FlightSummaryDto::getDepartureTime)
+			.thenComparingInt(FlightSummaryDto::getFlightId);
+	
 	private final FlightRepository flightRepository;
+	private final FlightSearchIndex searchIndex;
+	private final ApplicationEventPublisher eventPublisher;
+	private final SeatLedger seatLedger;
+	private final Executor searchExecutor;
+	private final ConnectionSearchEngine connectionSearchEngine;
+	private final FlightSummaryCache summaryCache;
+	private final TransactionTemplate readOnlyTransaction;
 
-	public FlightServiceImpl(FlightRepository flightRepository) {
+	public FlightServiceImpl(FlightRepository flightRepository, FlightSearchIndex searchIndex, ApplicationEventPublisher eventPublisher,
+			SeatLedger seatLedger, @Qualifier(SearchExecutorConfig.SEARCH_EXECUTOR) Executor searchExecutor,
+			ConnectionSearchEngine connectionSearchEngine, FlightSummaryCache summaryCache,
+			PlatformTransactionManager transactionManager) {
 		this.flightRepository = flightRepository;
+		this.searchIndex = searchIndex;
+		this.eventPublisher = eventPublisher;
+		this.seatLedger = seatLedger;
+		this.searchExecutor = searchExecutor;
+		this.connectionSearchEngine = connectionSearchEngine;
+		this.summaryCache = summaryCache;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
 	}
 
 	@Override
@@ -33,63 +95,377 @@ public class FlightServiceImpl implements FlightService{
 		
 		log.info("Searching flights from={} to={} date={} tripType={}", req.getFrom(), req.getTo(), req.getJourneyDate(), req.getTripType());
 		
-		LocalDate JourneyDate = req.getJourneyDate();
-		LocalDateTime start = JourneyDate.atStartOfDay();
-		LocalDateTime end = JourneyDate.plusDays(1).atStartOfDay();
+		if (!isFiltered(req)) {
+			return searchLeg(req.getFrom(), req.getTo(), req.getJourneyDate());
+		}
+		
+		FlightSort sortBy = req.getSortBy() == null ? FlightSort.DEPARTURE : req.getSortBy();
+		int limit = req.getLimit() == null ? Integer.MAX_VALUE : req.getLimit();
+		LocalDate journeyDate = req.getJourneyDate();
+		LocalDateTime start = req.getDepartureFrom() == null ? journeyDate.atStartOfDay() : journeyDate.atTime(req.getDepartureFrom());
+		LocalDateTime end = req.getDepartureTo() == null ? journeyDate.plusDays(1).atStartOfDay() : journeyDate.atTime(req.getDepartureTo());
+		
+		if (searchIndex.isLoaded()) {
+			return searchIndex.select(req.getFrom(), req.getTo(), journeyDate, start, end, f ->
+					(req.getMinPrice() == null || f.getPrice() >= req.getMinPrice())
+					&& (req.getMaxPrice() == null || f.getPrice() <= req.getMaxPrice())
+					&& (req.getAirlineCode() == null || f.getAirlineCode().equalsIgnoreCase(req.getAirlineCode()))
+					&& (req.getMinSeats() == null || f.getAvailableSeats() >= req.getMinSeats()),
+					sortBy, limit);
+		}
+		
+		// Price and departure order plus the limit are pushed into the query; duration is not a column,
+		// so those candidates are ranked here with a bounded heap instead
+		boolean pushDown = sortBy != FlightSort.DURATION;
+		Sort order = sortBy == FlightSort.PRICE
+				? Sort.by("price", "departureTime", "id")
+				: Sort.by("departureTime", "id");
+		List<FlightSummaryDto> flights = flightRepository.searchSummariesFiltered(req.getFrom(), req.getTo(), start, end,
+				FlightStatus.SCHEDULED, req.getMinPrice(), req.getMaxPrice(), req.getAirlineCode(), req.getMinSeats(),
+				order, pushDown && limit != Integer.MAX_VALUE ? Limit.of(limit) : Limit.unlimited());
+		if (pushDown) {
+			return flights;
+		}
+		
+		TopK<FlightSummaryDto> shortest = new TopK<>(BY_DURATION, limit);
+		flights.forEach(shortest::offer);
+		return shortest.toSortedList();
+	}
+	
+	private static boolean isFiltered(FlightSearchRequest req) {
+		return req.getMinPrice() != null || req.getMaxPrice() != null || req.getDepartureFrom() != null
+				|| req.getDepartureTo() != null || req.getAirlineCode() != null || req.getMinSeats() != null
+				|| req.getSortBy() != null || req.getLimit() != null;
+	}
+	
+	@Override
+	public FlightSearchPage searchFlightsPage(FlightSearchRequest req, String cursor, int size) {
+		
+		if (size < 1 || size > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		
+		LocalDate journeyDate = req.getJourneyDate();
+		LocalDateTime start = journeyDate.atStartOfDay();
+		SearchCursor after = cursor == null || cursor.isBlank()
+				? new SearchCursor(start, Integer.MIN_VALUE)
+				: SearchCursor.decode(cursor);
+		
+		log.info("Searching flights page from={} to={} date={} size={} after={}/{}", req.getFrom(), req.getTo(), journeyDate,
+				size, after.getDepartureTime(), after.getFlightId());
+		
+		// One extra row tells us whether another page exists
+		List<FlightSummaryDto> flights = searchIndex.isLoaded()
+				? searchIndex.searchAfter(req.getFrom(), req.getTo(), journeyDate, after.getDepartureTime(), after.getFlightId(), size + 1)
+				: flightRepository.searchSummariesAfter(req.getFrom(), req.getTo(), start, journeyDate.plusDays(1).atStartOfDay(),
+						FlightStatus.SCHEDULED, after.getDepartureTime(), after.getFlightId(), Limit.of(size + 1));
+		
+		String nextCursor = null;
+		if (flights.size() > size) {
+			flights = new ArrayList<>(flights.subList(0, size));
+			FlightSummaryDto last = flights.get(size - 1);
+			nextCursor = new SearchCursor(last.getDepartureTime(), last.getFlightId()).encode();
+		}
+		return new FlightSearchPage(flights, nextCursor);
+	}
+	
+	@Override
+	public void streamFlights(FlightSearchRequest req, Consumer<FlightSummaryDto> consumer) {
+		
+		log.info("Streaming flights from={} to={} date={}", req.getFrom(), req.getTo(), req.getJourneyDate());
+		
+		if (searchIndex.isLoaded()) {
+			searchIndex.forEach(req.getFrom(), req.getTo(), req.getJourneyDate(), consumer);
+			return;
+		}
+		
+		// Only the database cursor needs a transaction; index reads must not hold a connection while the client consumes
+		LocalDateTime start = req.getJourneyDate().atStartOfDay();
+		readOnlyTransaction.executeWithoutResult(status -> {
+			try (Stream<FlightSummaryDto> flights = flightRepository.streamSummaries(req.getFrom(), req.getTo(), start,
+					start.plusDays(1), FlightStatus.SCHEDULED)) {
+				flights.forEach(consumer);
+			}
+		});
+	}
+	
+	@Override
+	public FlightSearchResponse searchRoundTrip(FlightSearchRequest req) {
+		
+		log.info("Searching flights from={} to={} date={} tripType={} returnDate={}", req.getFrom(), req.getTo(),
+				req.getJourneyDate(), req.getTripType(), req.getReturnDate());
+		
+		if (req.getTripType() != TripType.ROUND_TRIP) {
+			List<FlightSummaryDto> outbound = searchLeg(req.getFrom(), req.getTo(), req.getJourneyDate());
+			return new FlightSearchResponse(req.getTripType(), outbound, List.of(), List.of());
+		}
+		
+		if (req.getReturnDate() == null || req.getReturnDate().isBefore(req.getJourneyDate())) {
+			throw new IllegalArgumentException("Return date must be on or after the journey date for a round trip");
+		}
+		
+		List<FlightSummaryDto> outbound;
+		List<FlightSummaryDto> inbound;
+		if (searchIndex.isLoaded()) {
+			// Both legs are in-memory lookups, not worth a thread hop
+			outbound = searchLeg(req.getFrom(), req.getTo(), req.getJourneyDate());
+			inbound = searchLeg(req.getTo(), req.getFrom(), req.getReturnDate());
+		} else {
+			CompletableFuture<List<FlightSummaryDto>> outboundFuture = CompletableFuture
+					.supplyAsync(() -> searchLeg(req.getFrom(), req.getTo(), req.getJourneyDate()), searchExecutor);
+			CompletableFuture<List<FlightSummaryDto>> inboundFuture = CompletableFuture
+					.supplyAsync(() -> searchLeg(req.getTo(), req.getFrom(), req.getReturnDate()), searchExecutor);
+			try {
+				outbound = outboundFuture.join();
+				inbound = inboundFuture.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException cause) {
+					throw cause;
+				}
+				throw e;
+			}
+		}
+		
+		return new FlightSearchResponse(TripType.ROUND_TRIP, outbound, inbound, cheapestPairs(outbound, inbound));
+	}
+	
+	@Override
+	public List<ItineraryOptionDto> searchConnections(ConnectionSearchRequest req) {
+		
+		log.info("Searching connections from={} to={} date={} maxStops={} sortBy={}", req.getFrom(), req.getTo(),
+				req.getJourneyDate(), req.getMaxStops(), req.getSortBy());
 		
-		List<Flight> flights = flightRepository.findByFromAirportAndToAirportAndDepartureTimeBetweenAndStatus(req.getFrom(), req.getTo(), start, end, FlightStatus.SCHEDULED);
+		if (req.getMinConnectionMinutes() > req.getMaxConnectionMinutes()) {
+			throw new IllegalArgumentException("Minimum connection time must not exceed the maximum connection time");
+		}
+		if (req.getSortBy() == null) {
+			req.setSortBy(ConnectionSort.PRICE);
+		}
+		
+		return connectionSearchEngine.search(req);
+	}
+	
+	private List<FlightSummaryDto> searchLeg(String from, String to, LocalDate journeyDate) {
+		if (searchIndex.isLoaded()) {
+			List<FlightSummaryDto> indexed = searchIndex.search(from, to, journeyDate);
+			log.debug("Found {} flights in search index", indexed.size());
+			return indexed;
+		}
+		
+		LocalDateTime start = journeyDate.atStartOfDay();
+		LocalDateTime end = journeyDate.plusDays(1).atStartOfDay();
+		
+		List<FlightSummaryDto> flights = flightRepository.searchSummaries(from, to, start, end, FlightStatus.SCHEDULED);
 		
 		log.debug("Found {} flights", flights.size());
 		
-		List<FlightSummaryDto> flightDtoList = new ArrayList<>();
+		return flights;
+	}
+	
+	/**
+	 * Pairs each outbound flight with the cheapest return flight departing after it lands and
+	 * keeps the cheapest pairs. Both lists come back sorted by departure, so a suffix minimum over
+	 * return prices plus a binary search per outbound flight is enough.
+	 */
+	private List<FlightPairDto> cheapestPairs(List<FlightSummaryDto> outbound, List<FlightSummaryDto> inbound) {
+		int n = inbound.size();
+		if (outbound.isEmpty() || n == 0) {
+			return List.of();
+		}
+		
+		int[] cheapestFrom = new int[n];
+		cheapestFrom[n - 1] = n - 1;
+		for (int i = n - 2; i >= 0; i--) {
+			int next = cheapestFrom[i + 1];
+			cheapestFrom[i] = inbound.get(i).getPrice() <= inbound.get(next).getPrice() ? i : next;
+		}
 		
-		for(Flight flight: flights) {
-			FlightSummaryDto i = toFlightSummaryDto(flight);
-			flightDtoList.add(i);
+		List<FlightPairDto> pairs = new ArrayList<>();
+		for (FlightSummaryDto out : outbound) {
+			int first = firstDepartingAtOrAfter(inbound, out.getArrivalTime());
+			if (first < n) {
+				FlightSummaryDto back = inbound.get(cheapestFrom[first]);
+				pairs.add(new FlightPairDto(out, back, out.getPrice() + back.getPrice()));
+			}
 		}
 		
-		return flightDtoList;
+		pairs.sort(Comparator.comparingInt(FlightPairDto::getTotalPrice)
+				.thenComparing(p -> p.getOutbound().getDepartureTime()));
+		return pairs.size() > CHEAPEST_PAIRS ? new ArrayList<>(pairs.subList(0, CHEAPEST_PAIRS)) : pairs;
+	}
+	
+	private static int firstDepartingAtOrAfter(List<FlightSummaryDto> flights, LocalDateTime time) {
+		int lo = 0;
+		int hi = flights.size();
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (flights.get(mid).getDepartureTime().isBefore(time)) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
 	}
 	
 	@Override
 	public FlightSummaryDto getFlightById(int flightId) {
-	    Flight flight = flightRepository.findById(flightId)
-	        .orElseThrow(() -> new ResourceNotFoundException("Flight not found with id: " + flightId));
-	    return toFlightSummaryDto(flight);
+	    FlightSummaryDto flight = summaryCache.get(flightId, id -> flightRepository.findSummaryById(id)
+	        .orElseThrow(() -> new ResourceNotFoundException("Flight not found with id: " + flightId)));
+	    if (seatLedger.isEnabled()) {
+	        // The flight table lags the ledger by up to one flush interval
+	        seatLedger.getAvailableSeats(flightId).ifPresent(flight::setAvailableSeats);
+	    }
+	    return flight;
+	}
+	
+	@Override
+	public Map<Integer, FlightSummaryDto> getFlightsByIds(Collection<Integer> flightIds) {
+		if (flightIds == null || flightIds.isEmpty()) {
+			return new LinkedHashMap<>();
+		}
+		
+		Map<Integer, FlightSummaryDto> flights = summaryCache.getAll(flightIds, misses -> {
+			Map<Integer, FlightSummaryDto> loaded = new LinkedHashMap<>();
+			for (FlightSummaryDto flight : flightRepository.findSummariesByIdIn(List.copyOf(misses))) {
+				loaded.put(flight.getFlightId(), flight);
+			}
+			return loaded;
+		});
+		if (seatLedger.isEnabled()) {
+			flights.values().forEach(flight ->
+					seatLedger.getAvailableSeats(flight.getFlightId()).ifPresent(flight::setAvailableSeats));
+		}
+		log.debug("Batch lookup returned {} of {} requested flights", flights.size(), flightIds.size());
+		return flights;
 	}
 
 	@Override
-	@Transactional
 	public void updateSeats(int flightId, int count) {
-	    Flight flight = flightRepository.findById(flightId)
-	        .orElseThrow(() -> new ResourceNotFoundException("Flight not found"));
-	    
-	    int newCount = flight.getAvailableSeats() + count;
-
-	    if(newCount < 0) {
-	        throw new SeatNotAvailableException("Not enough seats available");
-	    }
-	    if(newCount > flight.getTotalSeats()) {
-	        newCount = flight.getTotalSeats(); // Cap at total seats
-	    }
-	    
-	    flight.setAvailableSeats(newCount);
-	    flightRepository.save(flight);
+		if (seatLedger.isEnabled()) {
+			int applied = count;
+			if (count < 0) {
+				seatLedger.reserve(flightId, -count);
+			} else if (count > 0) {
+				applied = seatLedger.release(flightId, count);
+			}
+			eventPublisher.publishEvent(new SeatsChangedEvent(flightId, applied));
+			return;
+		}
+		
+		// Each guarded update runs in its own short transaction (see FlightRepository)
+		if (count < 0) {
+			int updated = flightRepository.reserveSeats(flightId, -count);
+			if (updated == 0) {
+				if (!flightRepository.existsById(flightId)) {
+					throw new ResourceNotFoundException("Flight not found");
+				}
+				throw new SeatNotAvailableException("Not enough seats available");
+			}
+		} else if (count > 0) {
+			// Released seats are capped at total seats inside the update itself
+			int updated = flightRepository.releaseSeats(flightId, count);
+			if (updated == 0) {
+				throw new ResourceNotFoundException("Flight not found");
+			}
+		}
+		
+		eventPublisher.publishEvent(new SeatsChangedEvent(flightId, count));
 	}
 	
-	private FlightSummaryDto toFlightSummaryDto(Flight flight) {
-		FlightSummaryDto f = new FlightSummaryDto();
+	@Override
+	@Transactional
+	public void reserveSeats(SeatReservationRequest req) {
+		// Sorted by flight id so concurrent multi-leg reservations always lock rows in the same order
+		Map<Integer, Integer> seatsByFlight = new TreeMap<>();
+		for (SeatReservationItemDto leg : req.getLegs()) {
+			seatsByFlight.merge(leg.getFlightId(), leg.getSeats(), Integer::sum);
+		}
+		log.info("Reserving seats on {} flights: {}", seatsByFlight.size(), seatsByFlight);
+		
+		if (seatLedger.isEnabled()) {
+			reserveInLedger(seatsByFlight);
+		} else {
+			for (Map.Entry<Integer, Integer> leg : seatsByFlight.entrySet()) {
+				int flightId = leg.getKey();
+				if (flightRepository.reserveSeats(flightId, leg.getValue()) == 0) {
+					// Throwing rolls back the legs already reserved in this transaction
+					if (!flightRepository.existsById(flightId)) {
+						throw new ResourceNotFoundException("Flight not found with id: " + flightId);
+					}
+					throw new SeatNotAvailableException("Not enough seats available on flight " + flightId);
+				}
+			}
+		}
 		
-		f.setFlightId(flight.getId());
-		f.setAirlineName(flight.getAirline().getName());
-		f.setAirlineCode(flight.getAirline().getCode());
-		f.setFromAirport(flight.getFromAirport());
-		f.setToAirport(flight.getToAirport());
-		f.setDepartureTime(flight.getDepartureTime());
-		f.setArrivalTime(flight.getArrivalTime());
-		f.setPrice(flight.getPrice());
-		f.setAvailableSeats(flight.getAvailableSeats());
+		seatsByFlight.forEach((flightId, seats) -> eventPublisher.publishEvent(new SeatsChangedEvent(flightId, -seats)));
+	}
+	
+	/**
+	 * Gives back seats on several flights in one transaction, one guarded update per flight.
+	 * A flight that no longer exists is skipped so it cannot hold back the others.
+	 */
+	@Override
+	@Transactional
+	public void releaseSeats(Map<Integer, Integer> seatsByFlight) {
+		// Same lock order as reserveSeats
+		Map<Integer, Integer> ordered = new TreeMap<>(seatsByFlight);
+		log.info("Releasing seats on {} flights: {}", ordered.size(), ordered);
 		
-		return f;
+		if (seatLedger.isEnabled()) {
+			// The ledger does not roll back with the transaction; releasing before commit would
+			// give the seats back twice when a failed batch is redelivered
+			releaseInLedgerAfterCommit(ordered);
+			return;
+		}
+		
+		for (Map.Entry<Integer, Integer> leg : ordered.entrySet()) {
+			int flightId = leg.getKey();
+			if (flightRepository.releaseSeats(flightId, leg.getValue()) == 0) {
+				log.warn("Flight {} not found, {} released seats dropped", flightId, leg.getValue());
+				continue;
+			}
+			eventPublisher.publishEvent(new SeatsChangedEvent(flightId, leg.getValue()));
+		}
+	}
+	
+	private void releaseInLedgerAfterCommit(Map<Integer, Integer> seatsByFlight) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			releaseInLedger(seatsByFlight);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				releaseInLedger(seatsByFlight);
+			}
+		});
+	}
+	
+	private void releaseInLedger(Map<Integer, Integer> seatsByFlight) {
+		for (Map.Entry<Integer, Integer> leg : seatsByFlight.entrySet()) {
+			int flightId = leg.getKey();
+			int applied;
+			try {
+				applied = seatLedger.release(flightId, leg.getValue());
+			} catch (ResourceNotFoundException e) {
+				log.warn("Flight {} not found, {} released seats dropped", flightId, leg.getValue());
+				continue;
+			}
+			eventPublisher.publishEvent(new SeatsChangedEvent(flightId, applied));
+		}
+	}
+	
+	private void reserveInLedger(Map<Integer, Integer> seatsByFlight) {
+		Map<Integer, Integer> reserved = new TreeMap<>();
+		try {
+			for (Map.Entry<Integer, Integer> leg : seatsByFlight.entrySet()) {
+				seatLedger.reserve(leg.getKey(), leg.getValue());
+				reserved.put(leg.getKey(), leg.getValue());
+			}
+		} catch (RuntimeException e) {
+			reserved.forEach(seatLedger::release);
+			throw e;
+		}
 	}
 }
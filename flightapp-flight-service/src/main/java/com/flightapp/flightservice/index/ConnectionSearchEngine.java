@@ -0,0 +1,285 @@
+package com.flightapp.flightservice.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.flightapp.flightservice.dto.request.ConnectionSearchRequest;
+import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.dto.response.ItineraryOptionDto;
+import com.flightapp.flightservice.entity.ConnectionSort;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.entity.FlightStatus;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
+import com.flightapp.flightservice.repository.FlightRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds direct, one-stop and two-stop itineraries over the scheduled flights.
+ * The schedule is held as a time-expanded graph: flights grouped by origin airport and sorted by
+ * departure, stored in parallel primitive arrays, so each hop is a binary search plus a scan of the
+ * departures inside the connection window. The top K itineraries by price or duration are kept in a
+ * bounded heap, and branches that can no longer beat the current K-th best are pruned.
+ * The graph is rebuilt lazily on the first search after flights are added.
+ */
+@Slf4j
+@Component
+public class ConnectionSearchEngine {
+
+	private static final long SECONDS_PER_MINUTE = 60;
+
+	private final FlightSearchIndex searchIndex;
+	private final FlightRepository flightRepository;
+
+	private volatile Schedule schedule;
+	private volatile boolean stale = true;
+
+	public ConnectionSearchEngine(FlightSearchIndex searchIndex, FlightRepository flightRepository) {
+		this.searchIndex = searchIndex;
+		this.flightRepository = flightRepository;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFlightsAdded(FlightsAddedEvent event) {
+		stale = true;
+	}
+
+	public List<ItineraryOptionDto> search(ConnectionSearchRequest req) {
+		Schedule s = schedule();
+		Integer origin = s.airportIndex.get(req.getFrom().toUpperCase());
+		Integer target = s.airportIndex.get(req.getTo().toUpperCase());
+		if (origin == null || target == null || origin.equals(target)) {
+			return List.of();
+		}
+
+		LocalDate date = req.getJourneyDate();
+		Query q = new Query(target, req.getMaxStops(), req.getMinConnectionMinutes() * SECONDS_PER_MINUTE,
+				req.getMaxConnectionMinutes() * SECONDS_PER_MINUTE, req.getSortBy(), req.getLimit());
+
+		boolean[] visited = new boolean[s.airportCodes.length];
+		visited[origin] = true;
+		s.extend(q, origin, IndexedFlight.toEpoch(date.atStartOfDay()), IndexedFlight.toEpoch(date.plusDays(1).atStartOfDay()),
+				0, new int[req.getMaxStops() + 1], visited);
+
+		Candidate[] ranked = q.best.toArray(new Candidate[0]);
+		Arrays.sort(ranked, q.order);
+
+		List<ItineraryOptionDto> result = new ArrayList<>(ranked.length);
+		for (Candidate c : ranked) {
+			result.add(s.toOption(c));
+		}
+		log.debug("Connection search {}->{} on {} returned {} itineraries", req.getFrom(), req.getTo(), date, result.size());
+		return result;
+	}
+
+	private Schedule schedule() {
+		Schedule current = schedule;
+		// stale is already cleared while the first graph is being built, so a missing graph also waits for it
+		if (stale || current == null) {
+			synchronized (this) {
+				if (stale || schedule == null) {
+					// Cleared before reading so flights added during the build trigger another one
+					stale = false;
+					schedule = Schedule.build(source());
+					log.info("Connection graph built with {} flights across {} airports",
+							schedule.flights.length, schedule.airportCodes.length);
+				}
+				current = schedule;
+			}
+		}
+		return current;
+	}
+
+	private Collection<IndexedFlight> source() {
+		if (searchIndex.isLoaded()) {
+			return searchIndex.flights();
+		}
+		List<IndexedFlight> flights = new ArrayList<>();
+		for (Flight flight : flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED)) {
+			flights.add(new IndexedFlight(flight));
+		}
+		return flights;
+	}
+
+	private static final class Query {
+		private final int target;
+		private final int maxStops;
+		private final long minConnection;
+		private final long maxConnection;
+		private final ConnectionSort sortBy;
+		private final int limit;
+		private final Comparator<Candidate> order;
+		private final PriorityQueue<Candidate> best;
+
+		private Query(int target, int maxStops, long minConnection, long maxConnection, ConnectionSort sortBy, int limit) {
+			this.target = target;
+			this.maxStops = maxStops;
+			this.minConnection = minConnection;
+			this.maxConnection = maxConnection;
+			this.sortBy = sortBy;
+			this.limit = limit;
+			Comparator<Candidate> byPrice = Comparator.comparingInt(c -> c.price);
+			Comparator<Candidate> byDuration = Comparator.comparingLong(c -> c.duration);
+			this.order = (sortBy == ConnectionSort.PRICE ? byPrice.thenComparing(byDuration) : byDuration.thenComparing(byPrice))
+					.thenComparingInt(c -> c.legs.length);
+			// Worst candidate on top so it can be evicted
+			this.best = new PriorityQueue<>(limit + 1, order.reversed());
+		}
+
+		private long cost(int price, long duration) {
+			return sortBy == ConnectionSort.PRICE ? price : duration;
+		}
+
+		private long worstCost() {
+			Candidate worst = best.peek();
+			return worst == null ? Long.MAX_VALUE : cost(worst.price, worst.duration);
+		}
+
+		private void offer(Candidate c) {
+			best.offer(c);
+			if (best.size() > limit) {
+				best.poll();
+			}
+		}
+	}
+
+	private static final class Candidate {
+		private final int[] legs;
+		private final int price;
+		private final long duration;
+
+		private Candidate(int[] legs, int price, long duration) {
+			this.legs = legs;
+			this.price = price;
+			this.duration = duration;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of the schedule. Flights are ordered by origin airport and then departure;
+	 * the departures of airport a occupy positions airportStart[a] until airportStart[a + 1].
+	 */
+	private static final class Schedule {
+		private final String[] airportCodes;
+		private final Map<String, Integer> airportIndex;
+		private final int[] airportStart;
+		private final long[] departure;
+		private final long[] arrival;
+		private final int[] destination;
+		private final int[] price;
+		private final IndexedFlight[] flights;
+
+		private Schedule(String[] airportCodes, Map<String, Integer> airportIndex, int[] airportStart, IndexedFlight[] flights) {
+			this.airportCodes = airportCodes;
+			this.airportIndex = airportIndex;
+			this.airportStart = airportStart;
+			this.flights = flights;
+			int n = flights.length;
+			this.departure = new long[n];
+			this.arrival = new long[n];
+			this.destination = new int[n];
+			this.price = new int[n];
+			for (int i = 0; i < n; i++) {
+				IndexedFlight f = flights[i];
+				departure[i] = f.getDepartureEpoch();
+				arrival[i] = f.getArrivalEpoch();
+				destination[i] = airportIndex.get(f.getToAirport().toUpperCase());
+				price[i] = f.getPrice();
+			}
+		}
+
+		private static Schedule build(Collection<IndexedFlight> source) {
+			// The source is a live view that flights can be added to meanwhile; both passes must see the same flights
+			IndexedFlight[] flights = source.toArray(new IndexedFlight[0]);
+
+			Map<String, Integer> airportIndex = new HashMap<>();
+			List<String> codes = new ArrayList<>();
+			for (IndexedFlight f : flights) {
+				for (String code : new String[] { f.getFromAirport().toUpperCase(), f.getToAirport().toUpperCase() }) {
+					if (!airportIndex.containsKey(code)) {
+						airportIndex.put(code, codes.size());
+						codes.add(code);
+					}
+				}
+			}
+
+			Arrays.sort(flights, Comparator.<IndexedFlight>comparingInt(f -> airportIndex.get(f.getFromAirport().toUpperCase()))
+					.thenComparingLong(IndexedFlight::getDepartureEpoch)
+					.thenComparingInt(IndexedFlight::getId));
+
+			int[] airportStart = new int[codes.size() + 1];
+			for (IndexedFlight f : flights) {
+				airportStart[airportIndex.get(f.getFromAirport().toUpperCase()) + 1]++;
+			}
+			for (int a = 0; a < codes.size(); a++) {
+				airportStart[a + 1] += airportStart[a];
+			}
+			return new Schedule(codes.toArray(new String[0]), airportIndex, airportStart, flights);
+		}
+
+		/**
+		 * Tries every departure from airport in [earliest, latest) as leg number depth of the itinerary.
+		 */
+		private void extend(Query q, int airport, long earliest, long latest, int depth, int[] path, boolean[] visited) {
+			int end = airportStart[airport + 1];
+			for (int i = firstDepartureAtOrAfter(airport, earliest); i < end && departure[i] < latest; i++) {
+				int next = destination[i];
+				if (visited[next] || flights[i].getAvailableSeats() <= 0) {
+					continue;
+				}
+				path[depth] = i;
+
+				int totalPrice = price[i];
+				for (int leg = 0; leg < depth; leg++) {
+					totalPrice += price[path[leg]];
+				}
+				long duration = arrival[i] - departure[path[0]];
+				// Extra legs only add price and time, so a partial itinerary that is already too costly is dropped
+				if (q.best.size() == q.limit && q.cost(totalPrice, duration) > q.worstCost()) {
+					continue;
+				}
+
+				if (next == q.target) {
+					q.offer(new Candidate(Arrays.copyOf(path, depth + 1), totalPrice, duration));
+				} else if (depth < q.maxStops) {
+					visited[next] = true;
+					extend(q, next, arrival[i] + q.minConnection, arrival[i] + q.maxConnection + 1, depth + 1, path, visited);
+					visited[next] = false;
+				}
+			}
+		}
+
+		private int firstDepartureAtOrAfter(int airport, long time) {
+			int lo = airportStart[airport];
+			int hi = airportStart[airport + 1];
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (departure[mid] < time) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+		private ItineraryOptionDto toOption(Candidate c) {
+			List<FlightSummaryDto> legs = new ArrayList<>(c.legs.length);
+			for (int i : c.legs) {
+				legs.add(flights[i].toSummaryDto());
+			}
+			return new ItineraryOptionDto(legs, c.legs.length - 1, c.price, c.duration / SECONDS_PER_MINUTE,
+					legs.get(0).getDepartureTime(), legs.get(legs.size() - 1).getArrivalTime());
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package com.flightapp.flightservice.index;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.entity.FlightSort;
+import com.flightapp.flightservice.entity.FlightStatus;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
+import com.flightapp.flightservice.event.SeatsChangedEvent;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.util.TopK;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory search index of scheduled flights keyed by (fromAirport, toAirport, departure date).
+ * Each bucket is an immutable array sorted by departure time, replaced on write, so searches never lock.
+ * The index is loaded once at startup and then kept current from flight change events.
+ * Loading happens once all singletons exist but before the web server and Kafka listeners start,
+ * so no seat change can commit before the snapshot is read and then be applied on top of it again.
+ */
+@Slf4j
+@Component
+public class FlightSearchIndex implements SmartInitializingSingleton {
+
+	private static final Comparator<IndexedFlight> BY_DEPARTURE = Comparator
+			.comparingLong(IndexedFlight::getDepartureEpoch)
+			.thenComparingInt(IndexedFlight::getId);
+
+	private static final Comparator<IndexedFlight> BY_PRICE = Comparator
+			.comparingInt(IndexedFlight::getPrice)
+			.thenComparing(BY_DEPARTURE);
+
+	private static final Comparator<IndexedFlight> BY_DURATION = Comparator
+			.comparingLong((IndexedFlight f) -> f.getArrivalEpoch() - f.getDepartureEpoch())
+			.thenComparing(BY_DEPARTURE);
+
+	private static final IndexedFlight[] EMPTY = new IndexedFlight[0];
+
+	private final FlightRepository flightRepository;
+
+	private final Map<String, IndexedFlight[]> routes = new ConcurrentHashMap<>();
+	private final Map<Integer, IndexedFlight> flightsById = new ConcurrentHashMap<>();
+	private final ReadWriteLock loadLock = new ReentrantReadWriteLock();
+
+	private volatile boolean loaded;
+
+	public FlightSearchIndex(FlightRepository flightRepository) {
+		this.flightRepository = flightRepository;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		load();
+	}
+
+	public void load() {
+		loadLock.writeLock().lock();
+		try {
+			List<Flight> flights = flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED);
+
+			Map<String, List<IndexedFlight>> buckets = new HashMap<>();
+			flightsById.clear();
+			for (Flight flight : flights) {
+				IndexedFlight f = new IndexedFlight(flight);
+				flightsById.put(f.getId(), f);
+				buckets.computeIfAbsent(keyOf(flight), k -> new ArrayList<>()).add(f);
+			}
+
+			routes.clear();
+			buckets.forEach((key, list) -> {
+				IndexedFlight[] arr = list.toArray(EMPTY);
+				Arrays.sort(arr, BY_DEPARTURE);
+				routes.put(key, arr);
+			});
+
+			loaded = true;
+			log.info("Flight search index loaded with {} flights across {} route-days", flightsById.size(), routes.size());
+		} catch (RuntimeException e) {
+			loaded = false;
+			log.error("Failed to load flight search index, searches will fall back to the database", e);
+		} finally {
+			loadLock.writeLock().unlock();
+		}
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	public List<FlightSummaryDto> search(String fromAirport, String toAirport, LocalDate journeyDate) {
+		IndexedFlight[] bucket = routes.getOrDefault(key(fromAirport, toAirport, journeyDate), EMPTY);
+
+		List<FlightSummaryDto> result = new ArrayList<>(bucket.length);
+		for (IndexedFlight f : bucket) {
+			result.add(f.toSummaryDto());
+		}
+		return result;
+	}
+
+	/**
+	 * Filtered search over one route-day: flights departing in [departureStart, departureEnd) that
+	 * match the filter, best limit first by the given sort. Departure order needs no sorting since
+	 * buckets are already in that order; price and duration use a bounded top-K heap.
+	 */
+	public List<FlightSummaryDto> select(String fromAirport, String toAirport, LocalDate journeyDate,
+			LocalDateTime departureStart, LocalDateTime departureEnd, Predicate<IndexedFlight> filter, FlightSort sortBy, int limit) {
+		IndexedFlight[] bucket = routes.getOrDefault(key(fromAirport, toAirport, journeyDate), EMPTY);
+		long startEpoch = IndexedFlight.toEpoch(departureStart);
+		long endEpoch = IndexedFlight.toEpoch(departureEnd);
+
+		int first = 0;
+		int hi = bucket.length;
+		while (first < hi) {
+			int mid = (first + hi) >>> 1;
+			if (bucket[mid].getDepartureEpoch() < startEpoch) {
+				first = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+
+		if (sortBy == FlightSort.DEPARTURE) {
+			List<FlightSummaryDto> result = new ArrayList<>();
+			for (int i = first; i < bucket.length && bucket[i].getDepartureEpoch() < endEpoch && result.size() < limit; i++) {
+				if (filter.test(bucket[i])) {
+					result.add(bucket[i].toSummaryDto());
+				}
+			}
+			return result;
+		}
+
+		TopK<IndexedFlight> best = new TopK<>(sortBy == FlightSort.PRICE ? BY_PRICE : BY_DURATION, limit);
+		for (int i = first; i < bucket.length && bucket[i].getDepartureEpoch() < endEpoch; i++) {
+			if (filter.test(bucket[i])) {
+				best.offer(bucket[i]);
+			}
+		}
+		List<IndexedFlight> selected = best.toSortedList();
+		List<FlightSummaryDto> result = new ArrayList<>(selected.size());
+		for (IndexedFlight f : selected) {
+			result.add(f.toSummaryDto());
+		}
+		return result;
+	}
+
+	/**
+	 * Up to limit flights of the route-day strictly after (afterDeparture, afterId) in departure order.
+	 */
+	public List<FlightSummaryDto> searchAfter(String fromAirport, String toAirport, LocalDate journeyDate,
+			LocalDateTime afterDeparture, int afterId, int limit) {
+		IndexedFlight[] bucket = routes.getOrDefault(key(fromAirport, toAirport, journeyDate), EMPTY);
+		long afterEpoch = IndexedFlight.toEpoch(afterDeparture);
+
+		int lo = 0;
+		int hi = bucket.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			IndexedFlight f = bucket[mid];
+			if (f.getDepartureEpoch() < afterEpoch || (f.getDepartureEpoch() == afterEpoch && f.getId() <= afterId)) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+
+		int end = Math.min(bucket.length, lo + limit);
+		List<FlightSummaryDto> result = new ArrayList<>(end - lo);
+		for (int i = lo; i < end; i++) {
+			result.add(bucket[i].toSummaryDto());
+		}
+		return result;
+	}
+
+	/**
+	 * Hands each flight of the route-day to the consumer without building a result list.
+	 */
+	public void forEach(String fromAirport, String toAirport, LocalDate journeyDate, Consumer<FlightSummaryDto> consumer) {
+		for (IndexedFlight f : routes.getOrDefault(key(fromAirport, toAirport, journeyDate), EMPTY)) {
+			consumer.accept(f.toSummaryDto());
+		}
+	}
+
+	/**
+	 * Live view of every indexed flight, shared with the {@link ConnectionSearchEngine}.
+	 */
+	Collection<IndexedFlight> flights() {
+		return flightsById.values();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFlightsAdded(FlightsAddedEvent event) {
+		loadLock.readLock().lock();
+		try {
+			for (Flight flight : event.getFlights()) {
+				if (flight.getStatus() == FlightStatus.SCHEDULED) {
+					put(new IndexedFlight(flight), keyOf(flight));
+				}
+			}
+		} finally {
+			loadLock.readLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSeatsChanged(SeatsChangedEvent event) {
+		loadLock.readLock().lock();
+		try {
+			IndexedFlight f = flightsById.get(event.getFlightId());
+			if (f != null) {
+				f.adjustSeats(event.getDelta());
+			}
+		} finally {
+			loadLock.readLock().unlock();
+		}
+	}
+
+	private void put(IndexedFlight flight, String key) {
+		flightsById.put(flight.getId(), flight);
+		routes.compute(key, (k, current) -> {
+			IndexedFlight[] base = current == null ? EMPTY : current;
+			List<IndexedFlight> list = new ArrayList<>(base.length + 1);
+			for (IndexedFlight f : base) {
+				if (f.getId() != flight.getId()) {
+					list.add(f);
+				}
+			}
+			list.add(flight);
+			IndexedFlight[] arr = list.toArray(EMPTY);
+			Arrays.sort(arr, BY_DEPARTURE);
+			return arr;
+		});
+	}
+
+	private static String keyOf(Flight flight) {
+		return key(flight.getFromAirport(), flight.getToAirport(), flight.getDepartureTime().toLocalDate());
+	}
+
+	// Airport codes are matched case-insensitively, like the MySQL search this index replaces
+	private static String key(String fromAirport, String toAirport, LocalDate date) {
+		return fromAirport.toUpperCase() + '|' + toAirport.toUpperCase() + '|' + date;
+	}
+}
@@ -0,0 +1,108 @@
+package com.flightapp.flightservice.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.entity.Flight;
+
+/**
+ * Compact, read-mostly copy of a scheduled {@link Flight} kept by the {@link FlightSearchIndex}.
+ * Times are stored as epoch seconds and only the seat counter is mutable.
+ */
+public final class IndexedFlight {
+
+	private final int id;
+	private final String airlineName;
+	private final String airlineCode;
+	private final String fromAirport;
+	private final String toAirport;
+	private final long departureEpoch;
+	private final long arrivalEpoch;
+	private final int price;
+	private final int totalSeats;
+	private final AtomicInteger availableSeats;
+
+	IndexedFlight(Flight flight) {
+		this.id = flight.getId();
+		this.airlineName = flight.getAirline().getName().intern();
+		this.airlineCode = flight.getAirline().getCode().intern();
+		this.fromAirport = flight.getFromAirport().intern();
+		this.toAirport = flight.getToAirport().intern();
+		this.departureEpoch = toEpoch(flight.getDepartureTime());
+		this.arrivalEpoch = toEpoch(flight.getArrivalTime());
+		this.price = flight.getPrice();
+		this.totalSeats = flight.getTotalSeats();
+		this.availableSeats = new AtomicInteger(flight.getAvailableSeats());
+	}
+
+	static long toEpoch(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC);
+	}
+
+	static LocalDateTime fromEpoch(long epoch) {
+		return LocalDateTime.ofEpochSecond(epoch, 0, ZoneOffset.UTC);
+	}
+
+	/**
+	 * Applies a seat delta, keeping the counter between 0 and total seats.
+	 */
+	int adjustSeats(int delta) {
+		return availableSeats.accumulateAndGet(delta, (current, d) -> Math.max(0, Math.min(totalSeats, current + d)));
+	}
+
+	public FlightSummaryDto toSummaryDto() {
+		FlightSummaryDto f = new FlightSummaryDto();
+		f.setFlightId(id);
+		f.setAirlineName(airlineName);
+		f.setAirlineCode(airlineCode);
+		f.setFromAirport(fromAirport);
+		f.setToAirport(toAirport);
+		f.setDepartureTime(fromEpoch(departureEpoch));
+		f.setArrivalTime(fromEpoch(arrivalEpoch));
+		f.setPrice(price);
+		f.setAvailableSeats(availableSeats.get());
+		return f;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getAirlineName() {
+		return airlineName;
+	}
+
+	public String getAirlineCode() {
+		return airlineCode;
+	}
+
+	public String getFromAirport() {
+		return fromAirport;
+	}
+
+	public String getToAirport() {
+		return toAirport;
+	}
+
+	public long getDepartureEpoch() {
+		return departureEpoch;
+	}
+
+	public long getArrivalEpoch() {
+		return arrivalEpoch;
+	}
+
+	public int getPrice() {
+		return price;
+	}
+
+	public int getTotalSeats() {
+		return totalSeats;
+	}
+
+	public int getAvailableSeats() {
+		return availableSeats.get();
+	}
+}
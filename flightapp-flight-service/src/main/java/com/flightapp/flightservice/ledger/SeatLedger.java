@@ -0,0 +1,180 @@
+package com.flightapp.flightservice.ledger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.flightapp.flightservice.exception.ResourceNotFoundException;
+import com.flightapp.flightservice.exception.SeatNotAvailableException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional in-memory seat ledger for hot flights (flight.seat-ledger.enabled).
+ * Reservations and releases are answered from per-flight atomic counters; the net change
+ * per flight is written behind to the flight table in one JDBC batch every flush interval.
+ * Counters are rebuilt from the flight table on startup, or loaded lazily on first use.
+ * <p>
+ * The counters are authoritative and local to this instance: a second instance would sell
+ * from its own copy and oversell the flight. The ledger therefore needs a single writer per
+ * flight, and refuses to start unless flight.seat-ledger.single-instance confirms that this
+ * service runs as one instance.
+ */
+@Slf4j
+@Component
+public class SeatLedger {
+
+	private static final String FLUSH_SQL = "update flight set available_seats = "
+			+ "least(total_seats, greatest(0, available_seats + ?)) where id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean enabled;
+
+	private final Map<Integer, SeatCounter> counters = new ConcurrentHashMap<>();
+	private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+	public SeatLedger(JdbcTemplate jdbcTemplate, @Value("${flight.seat-ledger.enabled:false}") boolean enabled,
+			@Value("${flight.seat-ledger.single-instance:false}") boolean singleInstance) {
+		if (enabled && !singleInstance) {
+			throw new IllegalStateException("flight.seat-ledger.enabled requires flight.seat-ledger.single-instance=true; "
+					+ "the in-memory counters would oversell with more than one flight-service instance");
+		}
+		this.jdbcTemplate = jdbcTemplate;
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void recover() {
+		if (!enabled) {
+			return;
+		}
+		// Requests and listeners may already have loaded counters lazily; those hold in-memory
+		// reservations and unflushed deltas, so they are kept rather than replaced
+		jdbcTemplate.query("select id, available_seats, total_seats from flight", rs -> {
+			counters.putIfAbsent(rs.getInt(1), new SeatCounter(rs.getInt(2), rs.getInt(3)));
+		});
+		log.info("Seat ledger recovered {} flight counters", counters.size());
+	}
+
+	public void reserve(int flightId, int seats) {
+		SeatCounter counter = counter(flightId);
+		int current;
+		do {
+			current = counter.available.get();
+			if (current < seats) {
+				throw new SeatNotAvailableException("Not enough seats available");
+			}
+		} while (!counter.available.compareAndSet(current, current - seats));
+
+		markDirty(flightId, counter, -seats);
+	}
+
+	/**
+	 * @return the number of seats actually released after capping at total seats
+	 */
+	public int release(int flightId, int seats) {
+		SeatCounter counter = counter(flightId);
+		int current;
+		int next;
+		do {
+			current = counter.available.get();
+			next = Math.min(counter.total, current + seats);
+		} while (!counter.available.compareAndSet(current, next));
+
+		int released = next - current;
+		if (released != 0) {
+			markDirty(flightId, counter, released);
+		}
+		return released;
+	}
+
+	public OptionalInt getAvailableSeats(int flightId) {
+		SeatCounter counter = counters.get(flightId);
+		return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.available.get());
+	}
+
+	@Scheduled(fixedDelayString = "${flight.seat-ledger.flush-interval-ms:500}")
+	public void flush() {
+		if (!enabled || dirty.isEmpty()) {
+			return;
+		}
+
+		List<Object[]> batch = new ArrayList<>();
+		List<Integer> flightIds = new ArrayList<>();
+		for (Integer flightId : dirty) {
+			dirty.remove(flightId);
+			int delta = counters.get(flightId).pendingDelta.getAndSet(0);
+			if (delta != 0) {
+				batch.add(new Object[] { delta, flightId });
+				flightIds.add(flightId);
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		try {
+			jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+			log.debug("Seat ledger flushed {} flights", batch.size());
+		} catch (DataAccessException e) {
+			// Put the deltas back so the next flush retries them
+			for (int i = 0; i < batch.size(); i++) {
+				int flightId = flightIds.get(i);
+				markDirty(flightId, counters.get(flightId), (int) batch.get(i)[0]);
+			}
+			log.error("Seat ledger flush failed for {} flights, will retry", batch.size(), e);
+		}
+	}
+
+	@PreDestroy
+	public void flushOnShutdown() {
+		flush();
+	}
+
+	private SeatCounter counter(int flightId) {
+		SeatCounter counter = counters.computeIfAbsent(flightId, this::loadCounter);
+		if (counter == null) {
+			throw new ResourceNotFoundException("Flight not found");
+		}
+		return counter;
+	}
+
+	private SeatCounter loadCounter(int flightId) {
+		List<SeatCounter> rows = jdbcTemplate.query("select available_seats, total_seats from flight where id = ?",
+				(rs, n) -> new SeatCounter(rs.getInt(1), rs.getInt(2)), flightId);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	private void markDirty(int flightId, SeatCounter counter, int delta) {
+		counter.pendingDelta.addAndGet(delta);
+		dirty.add(flightId);
+	}
+
+	private static final class SeatCounter {
+		private final AtomicInteger available;
+		private final int total;
+		private final AtomicInteger pendingDelta = new AtomicInteger();
+
+		private SeatCounter(int available, int total) {
+			this.available = new AtomicInteger(available);
+			this.total = total;
+		}
+	}
+}
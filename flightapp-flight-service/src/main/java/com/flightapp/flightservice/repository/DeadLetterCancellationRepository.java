@@ -0,0 +1,15 @@
+package com.flightapp.flightservice.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.flightapp.flightservice.entity.DeadLetterCancellation;
+
+public interface DeadLetterCancellationRepository extends JpaRepository<DeadLetterCancellation, Integer> {
+	
+	List<DeadLetterCancellation> findByReplayedTimeIsNullOrderByIdAsc(Limit limit);
+	
+	List<DeadLetterCancellation> findAllByOrderByIdAsc(Limit limit);
+}
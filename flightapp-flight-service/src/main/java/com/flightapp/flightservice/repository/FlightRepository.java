@@ -1,20 +1,134 @@
 package com.flightapp.flightservice.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.flightapp.flightservice.dto.response.FlightSummaryDto;
 import com.flightapp.flightservice.entity.Flight;
 import com.flightapp.flightservice.entity.FlightStatus;
 
+import jakarta.persistence.QueryHint;
+
 public interface FlightRepository extends JpaRepository<Flight, Integer>{
 	
-	List<Flight> findByFromAirportAndToAirportAndDepartureTimeBetweenAndStatus(
+	String SUMMARY_PROJECTION = "select new com.flightapp.flightservice.dto.response.FlightSummaryDto("
+			+ "f.id, a.name, a.code, f.fromAirport, f.toAirport, f.departureTime, f.arrivalTime, f.price, f.availableSeats) "
+			+ "from Flight f join f.airline a ";
+	
+	@Query(SUMMARY_PROJECTION
+			+ "where f.fromAirport = :fromAirport and f.toAirport = :toAirport "
+			+ "and f.departureTime >= :departureStart and f.departureTime < :departureEnd "
+			+ "and f.status = :status order by f.departureTime, f.id")
+	List<FlightSummaryDto> searchSummaries(
+		String fromAirport,
+		String toAirport,
+		LocalDateTime departureStart,
+		LocalDateTime departureEnd,
+		FlightStatus status
+	);
+	
+	/**
+	 * Route search with optional filters (null parameters are ignored). Ordering and the row
+	 * limit come from the caller, so a top-K by price or departure is resolved by the database.
+	 */
+	@Query(SUMMARY_PROJECTION
+			+ "where f.fromAirport = :fromAirport and f.toAirport = :toAirport "
+			+ "and f.departureTime >= :departureStart and f.departureTime < :departureEnd "
+			+ "and f.status = :status "
+			+ "and (:minPrice is null or f.price >= :minPrice) "
+			+ "and (:maxPrice is null or f.price <= :maxPrice) "
+			+ "and (:airlineCode is null or a.code = :airlineCode) "
+			+ "and (:minSeats is null or f.availableSeats >= :minSeats)")
+	List<FlightSummaryDto> searchSummariesFiltered(
+		String fromAirport,
+		String toAirport,
+		LocalDateTime departureStart,
+		LocalDateTime departureEnd,
+		FlightStatus status,
+		Integer minPrice,
+		Integer maxPrice,
+		String airlineCode,
+		Integer minSeats,
+		Sort sort,
+		Limit limit
+	);
+	
+	/**
+	 * One keyset page of a route search: flights strictly after (afterDeparture, afterId) in
+	 * (departureTime, id) order, so each page is an index range scan however deep the client pages.
+	 */
+	@Query(SUMMARY_PROJECTION
+			+ "where f.fromAirport = :fromAirport and f.toAirport = :toAirport "
+			+ "and f.departureTime >= :departureStart and f.departureTime < :departureEnd "
+			+ "and f.status = :status "
+			+ "and (f.departureTime > :afterDeparture or (f.departureTime = :afterDeparture and f.id > :afterId)) "
+			+ "order by f.departureTime, f.id")
+	List<FlightSummaryDto> searchSummariesAfter(
+		String fromAirport,
+		String toAirport,
+		LocalDateTime departureStart,
+		LocalDateTime departureEnd,
+		FlightStatus status,
+		LocalDateTime afterDeparture,
+		int afterId,
+		Limit limit
+	);
+	
+	/**
+	 * Same rows as {@link #searchSummaries}, read through a forward-only cursor in fetch-size chunks.
+	 * Must be consumed and closed inside a transaction.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query(SUMMARY_PROJECTION
+			+ "where f.fromAirport = :fromAirport and f.toAirport = :toAirport "
+			+ "and f.departureTime >= :departureStart and f.departureTime < :departureEnd "
+			+ "and f.status = :status order by f.departureTime, f.id")
+	Stream<FlightSummaryDto> streamSummaries(
 		String fromAirport,
 		String toAirport,
 		LocalDateTime departureStart,
 		LocalDateTime departureEnd,
 		FlightStatus status
 	);
+	
+	@Query(SUMMARY_PROJECTION + "where f.id = :id")
+	Optional<FlightSummaryDto> findSummaryById(int id);
+	
+	@Query(SUMMARY_PROJECTION + "where f.id in :ids")
+	List<FlightSummaryDto> findSummariesByIdIn(Collection<Integer> ids);
+	
+	@Query("select f from Flight f join fetch f.airline where f.status = :status")
+	List<Flight> findAllWithAirlineByStatus(FlightStatus status);
+	
+	/**
+	 * Takes seats in a single guarded statement, so concurrent bookings can never oversell.
+	 * @return 1 if the seats were reserved, 0 if the flight does not exist or has too few seats left
+	 */
+	@Transactional
+	@Modifying
+	@Query("update Flight f set f.availableSeats = f.availableSeats - :seats "
+			+ "where f.id = :id and f.availableSeats >= :seats")
+	int reserveSeats(int id, int seats);
+	
+	/**
+	 * Gives seats back in a single statement, capped at the flight's total seats.
+	 * @return 1 if the flight exists, 0 otherwise
+	 */
+	@Transactional
+	@Modifying
+	@Query("update Flight f set f.availableSeats = case when f.availableSeats + :seats > f.totalSeats "
+			+ "then f.totalSeats else f.availableSeats + :seats end where f.id = :id")
+	int releaseSeats(int id, int seats);
 }
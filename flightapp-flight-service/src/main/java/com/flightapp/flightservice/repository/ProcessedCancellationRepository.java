@@ -0,0 +1,23 @@
+package com.flightapp.flightservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.flightservice.entity.ProcessedCancellation;
+
+public interface ProcessedCancellationRepository extends JpaRepository<ProcessedCancellation, String> {
+	
+	@Query("select p.eventKey from ProcessedCancellation p where p.eventKey in :keys")
+	List<String> findExistingKeys(Collection<String> keys);
+	
+	@Transactional
+	@Modifying
+	@Query("delete from ProcessedCancellation p where p.processedTime < :cutoff")
+	int deleteProcessedBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,58 @@
+package com.flightapp.flightservice.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.flightservice.dedupe.ProcessedCancellationStore;
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+import com.flightapp.flightservice.entity.ProcessedCancellation;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies a batch of cancellation events exactly once per (pnr, flightId): duplicates inside the
+ * batch and events already processed are dropped, the rest are recorded as processed and their
+ * seats released per flight, all in one transaction.
+ */
+@Service
+@Slf4j
+public class CancellationProcessor {
+
+	private final FlightService flightService;
+	private final ProcessedCancellationStore processedStore;
+
+	public CancellationProcessor(FlightService flightService, ProcessedCancellationStore processedStore) {
+		this.flightService = flightService;
+		this.processedStore = processedStore;
+	}
+
+	@Transactional
+	public void process(List<BookingCancelledEvent> events) {
+		Map<String, BookingCancelledEvent> byKey = new LinkedHashMap<>();
+		for (BookingCancelledEvent event : events) {
+			byKey.putIfAbsent(ProcessedCancellation.key(event.getPnr(), event.getFlightId()), event);
+		}
+
+		Set<String> processed = processedStore.findProcessed(byKey.keySet());
+		if (!processed.isEmpty()) {
+			log.info("Dropping {} already processed cancellation events", processed.size());
+			byKey.keySet().removeAll(processed);
+		}
+		if (byKey.isEmpty()) {
+			return;
+		}
+
+		Map<Integer, Integer> seatsByFlight = new HashMap<>();
+		for (BookingCancelledEvent event : byKey.values()) {
+			seatsByFlight.merge(event.getFlightId(), event.getSeatsToRelease(), Integer::sum);
+		}
+		processedStore.markProcessed(List.copyOf(byKey.keySet()));
+		flightService.releaseSeats(seatsByFlight);
+	}
+}
@@ -0,0 +1,57 @@
+package com.flightapp.flightservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.kafka.annotation.BackOff;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retries cancellations that failed in the main batch listener, one record at a time, off the main
+ * partitions. Each attempt waits on its own delay topic with exponential backoff; after the last one
+ * the event lands on the dead-letter topic and is stored for inspection and replay.
+ */
+@Service
+@Slf4j
+public class CancellationRetryConsumer {
+	
+	private final CancellationProcessor cancellationProcessor;
+	private final DeadLetterService deadLetterService;
+	
+	public CancellationRetryConsumer(CancellationProcessor cancellationProcessor, DeadLetterService deadLetterService) {
+		this.cancellationProcessor = cancellationProcessor;
+		this.deadLetterService = deadLetterService;
+	}
+
+	@RetryableTopic(attempts = "${flight.cancellation-retry.attempts:4}",
+			backOff = @BackOff(delayString = "${flight.cancellation-retry.initial-delay-ms:1000}",
+					multiplierString = "${flight.cancellation-retry.multiplier:2.0}",
+					maxDelayString = "${flight.cancellation-retry.max-delay-ms:30000}"),
+			dltTopicSuffix = "-dlt")
+	@KafkaListener(topics = InventoryConsumer.RETRY_TOPIC, groupId = "flight-inventory-retry-group")
+	public void handleRetry(BookingCancelledEvent event) {
+		log.info("Retrying cancellation pnr={} flightId={}", event.getPnr(), event.getFlightId());
+		cancellationProcessor.process(List.of(event));
+	}
+	
+	@DltHandler
+	public void handleDeadLetter(BookingCancelledEvent event,
+			@Header(name = KafkaHeaders.DLT_ORIGINAL_TOPIC, required = false) byte[] originalTopic,
+			@Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) byte[] error) {
+		deadLetterService.record(event, text(originalTopic), text(error));
+	}
+	
+	// DLT headers arrive as raw bytes
+	private static String text(byte[] header) {
+		return header == null ? null : new String(header, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,14 @@
+package com.flightapp.flightservice.service;
+
+import java.util.List;
+
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+import com.flightapp.flightservice.dto.response.DeadLetterCancellationDto;
+
+public interface DeadLetterService {
+	void record(BookingCancelledEvent event, String sourceTopic, String error);
+	
+	List<DeadLetterCancellationDto> list(boolean includeReplayed, int limit);
+	
+	DeadLetterCancellationDto replay(int id);
+}
@@ -0,0 +1,45 @@
+package com.flightapp.flightservice.service;
+
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.flightapp.flightservice.dto.response.FlightChangedEvent;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tells other services that a flight's schedule data (airline, airports, times, price) changed,
+ * so they can evict their cached copies. Seat counts are not announced: callers that need
+ * availability always ask flight-service directly.
+ */
+@Service
+@Slf4j
+public class FlightChangePublisher {
+	
+	public static final String TOPIC = "flight-changed-topic";
+	
+	private final KafkaTemplate<String, FlightChangedEvent> kafkaTemplate;
+	
+	public FlightChangePublisher(KafkaTemplate<String, FlightChangedEvent> kafkaTemplate) {
+		this.kafkaTemplate = kafkaTemplate;
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFlightsAdded(FlightsAddedEvent event) {
+		for (Flight flight : event.getFlights()) {
+			publish(flight.getId(), "CREATED");
+		}
+	}
+	
+	private void publish(int flightId, String changeType) {
+		try {
+			kafkaTemplate.send(TOPIC, String.valueOf(flightId), new FlightChangedEvent(flightId, changeType));
+		} catch (Exception e) {
+			// Consumers' cache TTL bounds how long a missed change can stay visible
+			log.error("Failed to publish flight change for flightId={} (non-fatal)", flightId, e);
+		}
+	}
+}
@@ -1,17 +1,39 @@
 package com.flightapp.flightservice.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import com.flightapp.flightservice.dto.request.ConnectionSearchRequest;
 import com.flightapp.flightservice.dto.request.FlightSearchRequest;
+import com.flightapp.flightservice.dto.request.SeatReservationRequest;
+import com.flightapp.flightservice.dto.response.FlightSearchPage;
+import com.flightapp.flightservice.dto.response.FlightSearchResponse;
 import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.dto.response.ItineraryOptionDto;
 
 public interface FlightService {
 	
 	List<FlightSummaryDto> searchFlights(FlightSearchRequest req);
 	
+	FlightSearchPage searchFlightsPage(FlightSearchRequest req, String cursor, int size);
+	
+	void streamFlights(FlightSearchRequest req, Consumer<FlightSummaryDto> consumer);
+	
+	FlightSearchResponse searchRoundTrip(FlightSearchRequest req);
+	
+	List<ItineraryOptionDto> searchConnections(ConnectionSearchRequest req);
+	
 	FlightSummaryDto getFlightById(int flightId);
+	
+	Map<Integer, FlightSummaryDto> getFlightsByIds(Collection<Integer> flightIds);
     
 	void updateSeats(int flightId, int seats);
 	
+	void reserveSeats(SeatReservationRequest req);
+	
+	void releaseSeats(Map<Integer, Integer> seatsByFlight);
+	
 	
 }
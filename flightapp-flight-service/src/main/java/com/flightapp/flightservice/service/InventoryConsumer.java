@@ -1,11 +1,21 @@
 package com.flightapp.flightservice.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Service;
 
+import com.flightapp.flightservice.config.InventoryExecutorConfig;
 import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
-import com.flightapp.flightservice.entity.Flight;
-import com.flightapp.flightservice.repository.FlightRepository;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,19 +23,119 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class InventoryConsumer {
 	
-	private final FlightRepository flightRepository;
+	public static final String TOPIC = "booking-cancellation-topic";
+	public static final String RETRY_TOPIC = "booking-cancellation-retry-topic";
+	public static final String DLT_TOPIC = RETRY_TOPIC + "-dlt";
+	
+	private final CancellationProcessor cancellationProcessor;
+	private final KafkaTemplate<String, BookingCancelledEvent> kafkaTemplate;
+	private final Executor workerExecutor;
+	private final int concurrency;
 	
-	public InventoryConsumer(FlightRepository flightRepository) {
-		this.flightRepository = flightRepository;
+	public InventoryConsumer(CancellationProcessor cancellationProcessor, KafkaTemplate<String, BookingCancelledEvent> kafkaTemplate,
+			@Qualifier(InventoryExecutorConfig.INVENTORY_EXECUTOR) Executor workerExecutor,
+			@Value("${flight.inventory-consumer.concurrency:1}") int concurrency) {
+		this.cancellationProcessor = cancellationProcessor;
+		this.kafkaTemplate = kafkaTemplate;
+		this.workerExecutor = workerExecutor;
+		this.concurrency = concurrency;
 	}
 
+	/**
+	 * Takes a whole poll at once; seats are released per flight rather than per booking, and
+	 * redelivered events are dropped (see {@link CancellationProcessor}).
+	 * With a concurrency of 1 the poll is applied in one transaction. Above that, each flight's
+	 * events are applied in their own transaction on the worker pool: events of one flight keep
+	 * their order, different flights run concurrently.
+	 * If a group fails, its events are applied one by one and those that still fail are handed
+	 * to the retry topic (see {@link CancellationRetryConsumer}), so one bad event never holds up
+	 * the partition. If even that fails, the first unfinished record is reported and offsets are
+	 * committed only up to it.
+	 */
+	@KafkaListener(topics = TOPIC, groupId = "flight-inventory-group", batch = "true")
+	public void handleCancellations(List<BookingCancelledEvent> events) {
+		// Keyed by flight, holding positions in the poll so failures can be reported by index
+		Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+		List<Integer> readable = new ArrayList<>(events.size());
+		for (int i = 0; i < events.size(); i++) {
+			BookingCancelledEvent event = events.get(i);
+			// Records that failed to deserialise arrive as null and are skipped
+			if (event == null || event.getPnr() == null || event.getFlightId() == null || event.getSeatsToRelease() == null) {
+				log.warn("Skipping unreadable cancellation event");
+				continue;
+			}
+			readable.add(i);
+			groups.computeIfAbsent(event.getFlightId(), id -> new ArrayList<>()).add(i);
+		}
+		log.info("Received {} cancellation events", events.size());
+		
+		if (readable.isEmpty()) {
+			return;
+		}
+		if (concurrency <= 1 || groups.size() == 1) {
+			GroupFailure failure = applyInOrder(events, readable);
+			if (failure != null) {
+				throw new BatchListenerFailedException("Cancellation could not be applied or retried", failure.cause, failure.index);
+			}
+			return;
+		}
+		
+		List<CompletableFuture<GroupFailure>> results = new ArrayList<>(groups.size());
+		for (List<Integer> group : groups.values()) {
+			results.add(CompletableFuture.supplyAsync(() -> applyInOrder(events, group), workerExecutor));
+		}
+		GroupFailure lowest = null;
+		for (CompletableFuture<GroupFailure> result : results) {
+			GroupFailure failure = result.join();
+			if (failure != null && (lowest == null || failure.index < lowest.index)) {
+				lowest = failure;
+			}
+		}
+		if (lowest != null) {
+			throw new BatchListenerFailedException("Cancellation could not be applied or retried", lowest.cause, lowest.index);
+		}
+	}
+	
+	/**
+	 * Applies the events at the given positions, in order.
+	 * @return the first position that was neither applied nor handed to the retry topic, or null
+	 */
+	private GroupFailure applyInOrder(List<BookingCancelledEvent> events, List<Integer> positions) {
+		List<BookingCancelledEvent> group = new ArrayList<>(positions.size());
+		for (int i : positions) {
+			group.add(events.get(i));
+		}
+		try {
+			cancellationProcessor.process(group);
+			return null;
+		} catch (RuntimeException e) {
+			log.warn("Cancellation group of {} events failed, applying them one by one", group.size(), e);
+		}
+		
+		for (int i : positions) {
+			BookingCancelledEvent event = events.get(i);
+			try {
+				cancellationProcessor.process(List.of(event));
+			} catch (RuntimeException e) {
+				log.warn("Cancellation pnr={} flightId={} failed, sending to retry topic", event.getPnr(), event.getFlightId(), e);
+				try {
+					kafkaTemplate.send(RETRY_TOPIC, String.valueOf(event.getFlightId()), event).join();
+				} catch (RuntimeException sendFailure) {
+					// Later events of this group wait behind this one so their order holds
+					return new GroupFailure(i, sendFailure);
+				}
+			}
+		}
+		return null;
+	}
 	
-	@KafkaListener(topics = "booking-cancellation-topic", groupId = "flight-inventory-group")
-	public void handleCancellation(BookingCancelledEvent event) {
-		log.info("Received cancellation event for Flight ID: {}", event.getFlightId());
+	private static final class GroupFailure {
+		private final int index;
+		private final RuntimeException cause;
 		
-		Flight flight = flightRepository.findById(event.getFlightId()).orElseThrow();
-        flight.setAvailableSeats(flight.getAvailableSeats() + event.getSeatsToRelease());
-        flightRepository.save(flight);
+		private GroupFailure(int index, RuntimeException cause) {
+			this.index = index;
+			this.cause = cause;
+		}
 	}
 }
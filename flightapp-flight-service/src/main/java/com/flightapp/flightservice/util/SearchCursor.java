@@ -0,0 +1,46 @@
+package com.flightapp.flightservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for paged flight search: the (departureTime, id) of the last flight
+ * returned, encoded as URL-safe Base64 so clients pass it back unchanged.
+ */
+public final class SearchCursor {
+
+	private final LocalDateTime departureTime;
+	private final int flightId;
+
+	public SearchCursor(LocalDateTime departureTime, int flightId) {
+		this.departureTime = departureTime;
+		this.flightId = flightId;
+	}
+
+	public static SearchCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+			int sep = raw.indexOf(':');
+			long epoch = Long.parseLong(raw.substring(0, sep));
+			int id = Integer.parseInt(raw.substring(sep + 1));
+			return new SearchCursor(LocalDateTime.ofEpochSecond(epoch, 0, ZoneOffset.UTC), id);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid search cursor");
+		}
+	}
+
+	public String encode() {
+		String raw = departureTime.toEpochSecond(ZoneOffset.UTC) + ":" + flightId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	public LocalDateTime getDepartureTime() {
+		return departureTime;
+	}
+
+	public int getFlightId() {
+		return flightId;
+	}
+}
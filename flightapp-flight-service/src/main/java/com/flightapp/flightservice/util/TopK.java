@@ -0,0 +1,42 @@
+package com.flightapp.flightservice.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded top-K selection: keeps the k smallest elements under the given order in a heap of
+ * size k, so picking k of n candidates costs O(n log k) instead of a full sort.
+ */
+public final class TopK<T> {
+
+	private final Comparator<? super T> order;
+	private final int k;
+	private final PriorityQueue<T> heap;
+
+	public TopK(Comparator<? super T> order, int k) {
+		this.order = order;
+		this.k = k;
+		// Largest kept element on top so it can be evicted
+		this.heap = new PriorityQueue<>(Math.min(k, 64) + 1, order.reversed());
+	}
+
+	public void offer(T candidate) {
+		if (heap.size() < k) {
+			heap.offer(candidate);
+		} else if (order.compare(candidate, heap.peek()) < 0) {
+			heap.poll();
+			heap.offer(candidate);
+		}
+	}
+
+	/**
+	 * @return the kept elements in ascending order
+	 */
+	public List<T> toSortedList() {
+		List<T> result = new ArrayList<>(heap);
+		result.sort(order);
+		return result;
+	}
+}
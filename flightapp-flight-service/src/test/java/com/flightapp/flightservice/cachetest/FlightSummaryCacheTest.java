@@ -0,0 +1,94 @@
+package com.flightapp.flightservice.cachetest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.flightapp.flightservice.cache.FlightSummaryCache;
+import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
+import com.flightapp.flightservice.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FlightSummaryCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private FlightSummaryCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new FlightSummaryCache(registry, 100, 60);
+        loads = new AtomicInteger();
+    }
+
+    private FlightSummaryDto load(int flightId) {
+        loads.incrementAndGet();
+        LocalDateTime departure = LocalDateTime.now().plusDays(1);
+        return new FlightSummaryDto(flightId, "Air India", "AI", "DEL", "BOM", departure, departure.plusHours(2), 5000, 100);
+    }
+
+    private double gets(String result) {
+        return registry.get("cache.gets").tag("cache", FlightSummaryCache.CACHE_NAME).tag("result", result)
+                .functionCounter().count();
+    }
+
+    @Test
+    void get_recordsHitsAndMisses() {
+        cache.get(101, this::load);
+        cache.get(101, this::load);
+        cache.get(202, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, gets("hit"));
+        assertEquals(2, gets("miss"));
+    }
+
+    @Test
+    void get_loaderFailure_isNotCached() {
+        assertThrows(ResourceNotFoundException.class, () -> cache.get(999, id -> {
+            throw new ResourceNotFoundException("Flight not found");
+        }));
+
+        cache.get(999, this::load);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getAll_loadsOnlyMissesInOneCall() {
+        cache.get(101, this::load);
+        AtomicInteger batches = new AtomicInteger();
+
+        Map<Integer, FlightSummaryDto> result = cache.getAll(List.of(101, 202, 303), misses -> {
+            batches.incrementAndGet();
+            assertEquals(2, misses.size());
+            return Map.of(202, load(202));
+        });
+
+        assertEquals(1, batches.get());
+        assertEquals(2, result.size());
+        assertEquals(List.of(101, 202), List.copyOf(result.keySet()));
+    }
+
+    @Test
+    void onFlightsAdded_invalidatesEntries() {
+        cache.get(101, this::load);
+        Flight flight = new Flight();
+        flight.setId(101);
+
+        cache.onFlightsAdded(new FlightsAddedEvent(List.of(flight)));
+        cache.get(101, this::load);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,92 @@
+package com.flightapp.flightservice.codectest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.DelegatingByTopicDeserializer;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerialization;
+import org.springframework.kafka.support.serializer.JacksonJsonDeserializer;
+
+import com.flightapp.flightservice.codec.BookingCancelledEventDeserializer;
+import com.flightapp.flightservice.codec.BookingCancelledEventSerializer;
+import com.flightapp.flightservice.codec.EventCodec;
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+import com.flightapp.flightservice.service.InventoryConsumer;
+
+class BookingCancelledEventCodecTest {
+
+    private final BookingCancelledEventSerializer serializer = new BookingCancelledEventSerializer();
+    private final BookingCancelledEventDeserializer deserializer = new BookingCancelledEventDeserializer();
+
+    @Test
+    void roundTrip_keepsEveryField() {
+        BookingCancelledEvent event = new BookingCancelledEvent("PNR1A2B3C", Integer.MAX_VALUE, -3);
+
+        assertEquals(event, deserializer.deserialize("t", serializer.serialize("t", event)));
+    }
+
+    @Test
+    void missingField_readAsNull_unknownFieldSkipped() {
+        // Written by a newer producer: no seat count, plus a field this reader does not know
+        byte[] data = new EventCodec.Writer()
+                .string(1, "PNR1")
+                .string(9, "added later")
+                .int32(2, 101)
+                .toByteArray();
+
+        BookingCancelledEvent event = deserializer.deserialize("t", data);
+
+        assertEquals("PNR1", event.getPnr());
+        assertEquals(101, event.getFlightId());
+        assertNull(event.getSeatsToRelease());
+    }
+
+    @Test
+    void jsonRecord_stillRead() {
+        byte[] json = "{\"pnr\":\"PNR1\",\"flightId\":101,\"seatsToRelease\":2}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(new BookingCancelledEvent("PNR1", 101, 2), deserializer.deserialize("t", json));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("t", "not json".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void binaryRecord_muchSmallerThanJson() {
+        BookingCancelledEvent event = new BookingCancelledEvent("PNR1A2B3C", 12345, 2);
+        byte[] json = "{\"pnr\":\"PNR1A2B3C\",\"flightId\":12345,\"seatsToRelease\":2}".getBytes(StandardCharsets.UTF_8);
+
+        byte[] binary = serializer.serialize("t", event);
+
+        assertEquals(21, binary.length);
+        assertTrue(binary.length * 2 < json.length);
+    }
+
+    @Test
+    @SuppressWarnings("resource")
+    void consumerProperties_binaryOnCancellationTopic_jsonElsewhere() {
+        // Same settings as spring.kafka.consumer.properties in application.properties
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(DelegatingByTopicSerialization.VALUE_SERIALIZATION_TOPIC_CONFIG,
+                InventoryConsumer.TOPIC + ":" + BookingCancelledEventDeserializer.class.getName());
+        configs.put(DelegatingByTopicSerialization.VALUE_SERIALIZATION_TOPIC_DEFAULT, JacksonJsonDeserializer.class.getName());
+        configs.put(JacksonJsonDeserializer.TRUSTED_PACKAGES, "*");
+        configs.put(JacksonJsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        configs.put(JacksonJsonDeserializer.VALUE_DEFAULT_TYPE, BookingCancelledEvent.class.getName());
+        DelegatingByTopicDeserializer byTopic = new DelegatingByTopicDeserializer();
+        byTopic.configure(configs, false);
+
+        BookingCancelledEvent event = new BookingCancelledEvent("PNR1", 101, 2);
+        byte[] json = "{\"pnr\":\"PNR1\",\"flightId\":101,\"seatsToRelease\":2}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(event, byTopic.deserialize(InventoryConsumer.TOPIC, new RecordHeaders(), serializer.serialize("t", event)));
+        assertEquals(event, byTopic.deserialize(InventoryConsumer.RETRY_TOPIC, new RecordHeaders(), json));
+    }
+}
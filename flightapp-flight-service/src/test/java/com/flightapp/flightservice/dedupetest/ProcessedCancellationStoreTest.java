@@ -0,0 +1,70 @@
+package com.flightapp.flightservice.dedupetest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.flightapp.flightservice.dedupe.ProcessedCancellationStore;
+import com.flightapp.flightservice.repository.ProcessedCancellationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessedCancellationStoreTest {
+
+    @Mock
+    private ProcessedCancellationRepository repository;
+
+    private ProcessedCancellationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ProcessedCancellationStore(repository, 1000, 168);
+    }
+
+    @Test
+    void findProcessed_recentKeys_answeredFromMemory() {
+        store.markProcessed(List.of("PNR1:101", "PNR2:101"));
+
+        assertEquals(Set.of("PNR1:101", "PNR2:101"), store.findProcessed(List.of("PNR1:101", "PNR2:101")));
+        verify(repository, never()).findExistingKeys(anyCollection());
+    }
+
+    @Test
+    void findProcessed_unknownKeys_oneLookupThenCached() {
+        when(repository.findExistingKeys(List.of("PNR1:101", "PNR2:101"))).thenReturn(List.of("PNR1:101"));
+
+        assertEquals(Set.of("PNR1:101"), store.findProcessed(List.of("PNR1:101", "PNR2:101")));
+
+        // PNR1 is now remembered, only PNR2 goes back to the database
+        when(repository.findExistingKeys(List.of("PNR2:101"))).thenReturn(List.of());
+        assertEquals(Set.of("PNR1:101"), store.findProcessed(List.of("PNR1:101", "PNR2:101")));
+    }
+
+    @Test
+    void markProcessed_rolledBack_notRemembered() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.markProcessed(List.of("PNR1:101"));
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        when(repository.findExistingKeys(List.of("PNR1:101"))).thenReturn(List.of());
+
+        assertEquals(Set.of(), store.findProcessed(List.of("PNR1:101")));
+    }
+}
@@ -3,6 +3,7 @@ package com.flightapp.flightservice.impltest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
@@ -15,12 +16,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.flightapp.flightservice.dto.request.AirlineInventoryRequest;
 import com.flightapp.flightservice.dto.request.FlightInventoryItemDto;
 import com.flightapp.flightservice.dto.response.AirlineInventoryResponse;
 import com.flightapp.flightservice.entity.Airline;
 import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
 import com.flightapp.flightservice.exception.ResourceNotFoundException;
 import com.flightapp.flightservice.implimentation.AdminServiceImpl;
 import com.flightapp.flightservice.repository.AirlineRepository;
@@ -35,6 +38,9 @@ class AdminServiceImplTest {
     @Mock
     private FlightRepository flightRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AdminServiceImpl adminService;
 
@@ -75,6 +81,7 @@ class AdminServiceImplTest {
         assertEquals("AI", response.getAirLineCode());
         assertEquals(1, response.getFlightsAdded());
         assertEquals(101, response.getFlightIds().get(0));
+        verify(eventPublisher).publishEvent(any(FlightsAddedEvent.class));
     }
 
 //    @Test
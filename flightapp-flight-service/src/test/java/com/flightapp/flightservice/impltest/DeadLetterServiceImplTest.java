@@ -0,0 +1,99 @@
+package com.flightapp.flightservice.impltest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+import com.flightapp.flightservice.dto.response.DeadLetterCancellationDto;
+import com.flightapp.flightservice.entity.DeadLetterCancellation;
+import com.flightapp.flightservice.exception.ResourceNotFoundException;
+import com.flightapp.flightservice.implimentation.DeadLetterServiceImpl;
+import com.flightapp.flightservice.repository.DeadLetterCancellationRepository;
+import com.flightapp.flightservice.service.InventoryConsumer;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterServiceImplTest {
+
+    @Mock
+    private DeadLetterCancellationRepository deadLetterRepository;
+
+    @Mock
+    private KafkaTemplate<String, BookingCancelledEvent> kafkaTemplate;
+
+    @InjectMocks
+    private DeadLetterServiceImpl deadLetterService;
+
+    private DeadLetterCancellation entry(int id) {
+        DeadLetterCancellation entry = new DeadLetterCancellation();
+        entry.setId(id);
+        entry.setPnr("PNR" + id);
+        entry.setFlightId(101);
+        entry.setSeatsToRelease(2);
+        entry.setSourceTopic(InventoryConsumer.RETRY_TOPIC);
+        entry.setError("boom");
+        entry.setFailedTime(LocalDateTime.now());
+        return entry;
+    }
+
+    @Test
+    void record_storesEventAndTruncatesError() {
+        deadLetterService.record(new BookingCancelledEvent("PNR1", 101, 2), InventoryConsumer.RETRY_TOPIC, "x".repeat(5000));
+
+        ArgumentCaptor<DeadLetterCancellation> captor = ArgumentCaptor.forClass(DeadLetterCancellation.class);
+        verify(deadLetterRepository).save(captor.capture());
+        assertEquals("PNR1", captor.getValue().getPnr());
+        assertEquals(1000, captor.getValue().getError().length());
+        assertNull(captor.getValue().getReplayedTime());
+    }
+
+    @Test
+    void list_pendingOnly_capsLimit() {
+        when(deadLetterRepository.findByReplayedTimeIsNullOrderByIdAsc(Limit.of(500))).thenReturn(List.of(entry(1)));
+
+        List<DeadLetterCancellationDto> result = deadLetterService.list(false, 10_000);
+
+        assertEquals(1, result.size());
+        assertEquals("PNR1", result.get(0).getPnr());
+    }
+
+    @Test
+    void replay_sendsEventBackToCancellationTopic() {
+        DeadLetterCancellation entry = entry(7);
+        when(deadLetterRepository.findById(7)).thenReturn(Optional.of(entry));
+        when(kafkaTemplate.send(InventoryConsumer.TOPIC, "101", new BookingCancelledEvent("PNR7", 101, 2)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        DeadLetterCancellationDto result = deadLetterService.replay(7);
+
+        assertNotNull(result.getReplayedTime());
+        assertNotNull(entry.getReplayedTime());
+    }
+
+    @Test
+    void replay_unknownId_throwsException() {
+        when(deadLetterRepository.findById(8)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> deadLetterService.replay(8));
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+    }
+}
@@ -2,43 +2,99 @@ package com.flightapp.flightservice.impltest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.flightapp.flightservice.cache.FlightSummaryCache;
 import com.flightapp.flightservice.dto.request.FlightSearchRequest;
+import com.flightapp.flightservice.dto.request.SeatReservationItemDto;
+import com.flightapp.flightservice.dto.request.SeatReservationRequest;
+import com.flightapp.flightservice.dto.response.FlightPairDto;
+import com.flightapp.flightservice.dto.response.FlightSearchPage;
+import com.flightapp.flightservice.dto.response.FlightSearchResponse;
 import com.flightapp.flightservice.dto.response.FlightSummaryDto;
 import com.flightapp.flightservice.entity.Airline;
 import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.entity.FlightSort;
 import com.flightapp.flightservice.entity.FlightStatus;
 import com.flightapp.flightservice.entity.TripType;
 import com.flightapp.flightservice.exception.ResourceNotFoundException;
 import com.flightapp.flightservice.exception.SeatNotAvailableException;
+import com.flightapp.flightservice.event.SeatsChangedEvent;
 import com.flightapp.flightservice.implimentation.FlightServiceImpl;
+import com.flightapp.flightservice.index.ConnectionSearchEngine;
+import com.flightapp.flightservice.index.FlightSearchIndex;
+import com.flightapp.flightservice.ledger.SeatLedger;
 import com.flightapp.flightservice.repository.FlightRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class FlightServiceImplTest {
 
     @Mock
     private FlightRepository flightRepository;
 
+    @Mock
+    private FlightSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SeatLedger seatLedger;
+
+    @Mock
+    private Executor searchExecutor;
+
+    @Mock
+    private ConnectionSearchEngine connectionSearchEngine;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private FlightSummaryCache summaryCache = new FlightSummaryCache(new SimpleMeterRegistry(), 100, 60);
+
     @InjectMocks
     private FlightServiceImpl flightService;
 
@@ -73,9 +129,12 @@ class FlightServiceImplTest {
         request.setJourneyDate(LocalDate.now().plusDays(1));
         request.setTripType(TripType.ONE_WAY);
 
-        when(flightRepository.findByFromAirportAndToAirportAndDepartureTimeBetweenAndStatus(
+        FlightSummaryDto summary = new FlightSummaryDto(101, "Air India", "AI", "DEL", "BOM",
+                flight.getDepartureTime(), flight.getArrivalTime(), 5000, 100);
+
+        when(flightRepository.searchSummaries(
                 eq("DEL"), eq("BOM"), any(LocalDateTime.class), any(LocalDateTime.class), eq(FlightStatus.SCHEDULED)
-        )).thenReturn(List.of(flight));
+        )).thenReturn(List.of(summary));
 
         List<FlightSummaryDto> results = flightService.searchFlights(request);
 
@@ -85,9 +144,226 @@ class FlightServiceImplTest {
         assertEquals(100, results.get(0).getAvailableSeats()); // Checking mapped field
     }
 
+    @Test
+    void searchFlights_indexLoaded_skipsDatabase() {
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(LocalDate.now().plusDays(1));
+        request.setTripType(TripType.ONE_WAY);
+
+        FlightSummaryDto indexed = new FlightSummaryDto();
+        indexed.setFlightId(101);
+
+        when(searchIndex.isLoaded()).thenReturn(true);
+        when(searchIndex.search("DEL", "BOM", request.getJourneyDate())).thenReturn(List.of(indexed));
+
+        List<FlightSummaryDto> results = flightService.searchFlights(request);
+
+        assertEquals(1, results.size());
+        verify(flightRepository, never()).searchSummaries(any(), any(), any(), any(), any());
+    }
+
+    private FlightSummaryDto summary(int id, String from, String to, LocalDateTime departure, int price) {
+        return new FlightSummaryDto(id, "Air India", "AI", from, to, departure, departure.plusHours(2), price, 100);
+    }
+
+    @Test
+    void searchRoundTrip_databasePath_runsLegsOnExecutorAndPairsCheapest() {
+        LocalDate out = LocalDate.now().plusDays(1);
+        LocalDate back = out.plusDays(3);
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(out);
+        request.setTripType(TripType.ROUND_TRIP);
+        request.setReturnDate(back);
+
+        doAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return null;
+        }).when(searchExecutor).execute(any(Runnable.class));
+        when(flightRepository.searchSummaries(eq("DEL"), eq("BOM"), any(), any(), eq(FlightStatus.SCHEDULED)))
+                .thenReturn(List.of(summary(1, "DEL", "BOM", out.atTime(6, 0), 5000),
+                        summary(2, "DEL", "BOM", out.atTime(9, 0), 3000)));
+        when(flightRepository.searchSummaries(eq("BOM"), eq("DEL"), any(), any(), eq(FlightStatus.SCHEDULED)))
+                .thenReturn(List.of(summary(3, "BOM", "DEL", back.atTime(7, 0), 4500),
+                        summary(4, "BOM", "DEL", back.atTime(20, 0), 2500)));
+
+        FlightSearchResponse response = flightService.searchRoundTrip(request);
+
+        verify(searchExecutor, times(2)).execute(any(Runnable.class));
+        assertEquals(2, response.getOutboundFlights().size());
+        assertEquals(2, response.getReturnFlights().size());
+        assertEquals(2, response.getCheapestPairs().size());
+        FlightPairDto cheapest = response.getCheapestPairs().get(0);
+        assertEquals(2, cheapest.getOutbound().getFlightId());
+        assertEquals(4, cheapest.getInbound().getFlightId());
+        assertEquals(5500, cheapest.getTotalPrice());
+    }
+
+    @Test
+    void searchRoundTrip_sameDayReturn_onlyPairsFlightsAfterArrival() {
+        LocalDate day = LocalDate.now().plusDays(1);
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(day);
+        request.setTripType(TripType.ROUND_TRIP);
+        request.setReturnDate(day);
+
+        when(searchIndex.isLoaded()).thenReturn(true);
+        when(searchIndex.search("DEL", "BOM", day)).thenReturn(List.of(summary(1, "DEL", "BOM", day.atTime(10, 0), 4000)));
+        when(searchIndex.search("BOM", "DEL", day)).thenReturn(List.of(
+                summary(3, "BOM", "DEL", day.atTime(8, 0), 1000),
+                summary(4, "BOM", "DEL", day.atTime(18, 0), 3000)));
+
+        FlightSearchResponse response = flightService.searchRoundTrip(request);
+
+        verify(searchExecutor, never()).execute(any());
+        assertEquals(1, response.getCheapestPairs().size());
+        assertEquals(4, response.getCheapestPairs().get(0).getInbound().getFlightId());
+    }
+
+    @Test
+    void searchRoundTrip_missingReturnDate_throwsException() {
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(LocalDate.now().plusDays(1));
+        request.setTripType(TripType.ROUND_TRIP);
+
+        assertThrows(IllegalArgumentException.class, () -> flightService.searchRoundTrip(request));
+    }
+
+    @Test
+    void searchFlightsPage_returnsCursorWhenMoreFlightsExist() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(date);
+        request.setTripType(TripType.ONE_WAY);
+
+        when(searchIndex.isLoaded()).thenReturn(true);
+        when(searchIndex.searchAfter("DEL", "BOM", date, date.atStartOfDay(), Integer.MIN_VALUE, 3)).thenReturn(List.of(
+                summary(1, "DEL", "BOM", date.atTime(6, 0), 5000),
+                summary(2, "DEL", "BOM", date.atTime(7, 0), 5000),
+                summary(3, "DEL", "BOM", date.atTime(8, 0), 5000)));
+
+        FlightSearchPage page = flightService.searchFlightsPage(request, null, 2);
+
+        assertEquals(2, page.getFlights().size());
+        assertNotNull(page.getNextCursor());
+
+        // The cursor resumes strictly after the last flight returned
+        when(searchIndex.searchAfter("DEL", "BOM", date, date.atTime(7, 0), 2, 3))
+                .thenReturn(List.of(summary(3, "DEL", "BOM", date.atTime(8, 0), 5000)));
+
+        FlightSearchPage next = flightService.searchFlightsPage(request, page.getNextCursor(), 2);
+
+        assertEquals(1, next.getFlights().size());
+        assertEquals(3, next.getFlights().get(0).getFlightId());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void searchFlightsPage_invalidCursor_throwsException() {
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(LocalDate.now().plusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> flightService.searchFlightsPage(request, "not-a-cursor", 10));
+    }
+
+    @Test
+    void streamFlights_indexLoaded_opensNoTransaction() {
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(LocalDate.now().plusDays(1));
+        when(searchIndex.isLoaded()).thenReturn(true);
+
+        flightService.streamFlights(request, f -> { });
+
+        verify(searchIndex).forEach(eq("DEL"), eq("BOM"), eq(request.getJourneyDate()), any());
+        verifyNoInteractions(transactionManager, flightRepository);
+    }
+
+    @Test
+    void streamFlights_fromDatabase_readsCursorInReadOnlyTransaction() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(date);
+
+        when(transactionManager.getTransaction(argThat(def -> def.isReadOnly()))).thenReturn(new SimpleTransactionStatus());
+        when(flightRepository.streamSummaries("DEL", "BOM", date.atStartOfDay(), date.plusDays(1).atStartOfDay(), FlightStatus.SCHEDULED))
+                .thenReturn(Stream.of(summary(1, "DEL", "BOM", date.atTime(6, 0), 4000), summary(2, "DEL", "BOM", date.atTime(9, 0), 4500)));
+
+        List<FlightSummaryDto> streamed = new ArrayList<>();
+        flightService.streamFlights(request, streamed::add);
+
+        assertEquals(2, streamed.size());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void searchFlights_sortByDurationOnDatabase_ranksInMemory() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(date);
+        request.setTripType(TripType.ONE_WAY);
+        request.setDepartureFrom(LocalTime.of(6, 0));
+        request.setAirlineCode("AI");
+        request.setSortBy(FlightSort.DURATION);
+        request.setLimit(2);
+
+        FlightSummaryDto slow = summary(1, "DEL", "BOM", date.atTime(6, 0), 5000);
+        slow.setArrivalTime(date.atTime(10, 0));
+        FlightSummaryDto fast = summary(2, "DEL", "BOM", date.atTime(7, 0), 5000);
+        fast.setArrivalTime(date.atTime(8, 30));
+        FlightSummaryDto medium = summary(3, "DEL", "BOM", date.atTime(8, 0), 5000);
+
+        when(flightRepository.searchSummariesFiltered(eq("DEL"), eq("BOM"), eq(date.atTime(6, 0)), eq(date.plusDays(1).atStartOfDay()),
+                eq(FlightStatus.SCHEDULED), isNull(), isNull(), eq("AI"), isNull(), any(Sort.class), eq(Limit.unlimited())))
+                .thenReturn(List.of(slow, fast, medium));
+
+        List<FlightSummaryDto> results = flightService.searchFlights(request);
+
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(0).getFlightId());
+        assertEquals(3, results.get(1).getFlightId());
+    }
+
+    @Test
+    void searchFlights_sortByPriceOnDatabase_pushesLimitDown() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BOM");
+        request.setJourneyDate(date);
+        request.setTripType(TripType.ONE_WAY);
+        request.setMaxPrice(6000);
+        request.setSortBy(FlightSort.PRICE);
+        request.setLimit(5);
+
+        when(flightRepository.searchSummariesFiltered(any(), any(), any(), any(), any(), any(), eq(6000), any(), any(),
+                eq(Sort.by("price", "departureTime", "id")), eq(Limit.of(5))))
+                .thenReturn(List.of(summary(1, "DEL", "BOM", date.atTime(6, 0), 4000)));
+
+        assertEquals(1, flightService.searchFlights(request).size());
+    }
+
     @Test
     void getFlightById_success() {
-        when(flightRepository.findById(101)).thenReturn(Optional.of(flight));
+        FlightSummaryDto summary = new FlightSummaryDto(101, "Air India", "AI", "DEL", "BOM",
+                flight.getDepartureTime(), flight.getArrivalTime(), 5000, 100);
+        when(flightRepository.findSummaryById(101)).thenReturn(Optional.of(summary));
 
         FlightSummaryDto dto = flightService.getFlightById(101);
 
@@ -96,63 +372,227 @@ class FlightServiceImplTest {
         assertEquals("DEL", dto.getFromAirport());
     }
 
+    @Test
+    void getFlightById_cached_hitsDatabaseOnce() {
+        FlightSummaryDto summary = new FlightSummaryDto(101, "Air India", "AI", "DEL", "BOM",
+                flight.getDepartureTime(), flight.getArrivalTime(), 5000, 100);
+        when(flightRepository.findSummaryById(101)).thenReturn(Optional.of(summary));
+
+        flightService.getFlightById(101).setAvailableSeats(0);
+        FlightSummaryDto dto = flightService.getFlightById(101);
+
+        // Callers get copies, so changing one never leaks into the cache
+        assertEquals(100, dto.getAvailableSeats());
+        verify(flightRepository, times(1)).findSummaryById(101);
+
+        summaryCache.onSeatsChanged(new SeatsChangedEvent(101, -1));
+        flightService.getFlightById(101);
+        verify(flightRepository, times(2)).findSummaryById(101);
+    }
+
+    @Test
+    void getFlightsByIds_singleQuery() {
+        FlightSummaryDto first = new FlightSummaryDto();
+        first.setFlightId(101);
+        FlightSummaryDto second = new FlightSummaryDto();
+        second.setFlightId(202);
+        when(flightRepository.findSummariesByIdIn(List.of(101, 202, 999))).thenReturn(List.of(first, second));
+
+        Map<Integer, FlightSummaryDto> result = flightService.getFlightsByIds(List.of(101, 202, 999));
+
+        assertEquals(2, result.size());
+        assertEquals(202, result.get(202).getFlightId());
+        verify(flightRepository, times(1)).findSummariesByIdIn(any());
+        verify(flightRepository, never()).findSummaryById(anyInt());
+    }
+
     @Test
     void getFlightById_notFound_throwsException() {
-        when(flightRepository.findById(999)).thenReturn(Optional.empty());
+        when(flightRepository.findSummaryById(999)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> flightService.getFlightById(999));
     }
 
     @Test
     void updateSeats_booking_success() {
-        when(flightRepository.findById(101)).thenReturn(Optional.of(flight));
+        when(flightRepository.reserveSeats(101, 2)).thenReturn(1);
 
         // Decrease seats by 2
         flightService.updateSeats(101, -2);
 
-        assertEquals(98, flight.getAvailableSeats());
-        verify(flightRepository, times(1)).save(flight);
+        verify(flightRepository, times(1)).reserveSeats(101, 2);
+        verify(flightRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(any(SeatsChangedEvent.class));
     }
 
     @Test
     void updateSeats_cancellation_success() {
-        when(flightRepository.findById(101)).thenReturn(Optional.of(flight));
+        when(flightRepository.releaseSeats(101, 2)).thenReturn(1);
 
         // Increase seats by 2
         flightService.updateSeats(101, 2);
 
-        assertEquals(102, flight.getAvailableSeats());
-        verify(flightRepository, times(1)).save(flight);
+        verify(flightRepository, times(1)).releaseSeats(101, 2);
+        verify(flightRepository, never()).save(any());
     }
 
     @Test
-    void updateSeats_capAtTotalSeats() {
-        flight.setAvailableSeats(179);
-        when(flightRepository.findById(101)).thenReturn(Optional.of(flight));
+    void updateSeats_release_isSingleGuardedStatement() {
+        when(flightRepository.releaseSeats(101, 5)).thenReturn(1);
 
-        // Try to add 5 seats (179 + 5 = 184), should cap at 180
+        // Capping at total seats happens inside the update statement
         flightService.updateSeats(101, 5);
 
-        assertEquals(180, flight.getAvailableSeats());
-        verify(flightRepository, times(1)).save(flight);
+        verify(flightRepository, never()).findById(anyInt());
+        verify(flightRepository, times(1)).releaseSeats(101, 5);
     }
 
     @Test
     void updateSeats_notEnoughSeats_throwsException() {
-        flight.setAvailableSeats(1);
-        when(flightRepository.findById(101)).thenReturn(Optional.of(flight));
+        when(flightRepository.reserveSeats(101, 2)).thenReturn(0);
+        when(flightRepository.existsById(101)).thenReturn(true);
 
         // Try to book 2 seats
         assertThrows(SeatNotAvailableException.class, () -> flightService.updateSeats(101, -2));
         
-        // Ensure save is never called
-        verify(flightRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
     
     @Test
     void updateSeats_flightNotFound_throwsException() {
-        when(flightRepository.findById(999)).thenReturn(Optional.empty());
+        when(flightRepository.reserveSeats(999, 1)).thenReturn(0);
+        when(flightRepository.existsById(999)).thenReturn(false);
         
         assertThrows(ResourceNotFoundException.class, () -> flightService.updateSeats(999, -1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateSeats_releaseUnknownFlight_throwsException() {
+        when(flightRepository.releaseSeats(999, 1)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> flightService.updateSeats(999, 1));
+    }
+
+    @Test
+    void updateSeats_ledgerEnabled_skipsDatabase() {
+        when(seatLedger.isEnabled()).thenReturn(true);
+
+        flightService.updateSeats(101, -2);
+
+        verify(seatLedger).reserve(101, 2);
+        verify(flightRepository, never()).reserveSeats(anyInt(), anyInt());
+        verify(eventPublisher).publishEvent(any(SeatsChangedEvent.class));
+    }
+
+    private SeatReservationRequest buildReservation(int... flightIdAndSeats) {
+        List<SeatReservationItemDto> legs = new ArrayList<>();
+        for (int i = 0; i < flightIdAndSeats.length; i += 2) {
+            legs.add(new SeatReservationItemDto(flightIdAndSeats[i], flightIdAndSeats[i + 1]));
+        }
+        SeatReservationRequest req = new SeatReservationRequest();
+        req.setLegs(legs);
+        return req;
+    }
+
+    @Test
+    void reserveSeats_multiLeg_reservesInFlightIdOrder() {
+        when(flightRepository.reserveSeats(anyInt(), anyInt())).thenReturn(1);
+
+        flightService.reserveSeats(buildReservation(202, 2, 101, 2));
+
+        InOrder inOrder = inOrder(flightRepository);
+        inOrder.verify(flightRepository).reserveSeats(101, 2);
+        inOrder.verify(flightRepository).reserveSeats(202, 2);
+        verify(eventPublisher, times(2)).publishEvent(any(SeatsChangedEvent.class));
+    }
+
+    @Test
+    void reserveSeats_secondLegFull_throwsWithoutPublishing() {
+        when(flightRepository.reserveSeats(101, 2)).thenReturn(1);
+        when(flightRepository.reserveSeats(202, 2)).thenReturn(0);
+        when(flightRepository.existsById(202)).thenReturn(true);
+
+        assertThrows(SeatNotAvailableException.class,
+                () -> flightService.reserveSeats(buildReservation(101, 2, 202, 2)));
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void reserveSeats_ledgerEnabled_compensatesOnFailure() {
+        when(seatLedger.isEnabled()).thenReturn(true);
+        // Lenient because the first leg is reserved with different arguments
+        lenient().doThrow(new SeatNotAvailableException("full")).when(seatLedger).reserve(202, 2);
+
+        assertThrows(SeatNotAvailableException.class,
+                () -> flightService.reserveSeats(buildReservation(101, 2, 202, 2)));
+
+        verify(seatLedger).reserve(101, 2);
+        verify(seatLedger).release(101, 2);
+    }
+
+    @Test
+    void releaseSeats_oneGuardedUpdatePerFlightInIdOrder() {
+        when(flightRepository.releaseSeats(101, 5)).thenReturn(1);
+        when(flightRepository.releaseSeats(202, 3)).thenReturn(1);
+
+        flightService.releaseSeats(Map.of(202, 3, 101, 5));
+
+        InOrder inOrder = inOrder(flightRepository);
+        inOrder.verify(flightRepository).releaseSeats(101, 5);
+        inOrder.verify(flightRepository).releaseSeats(202, 3);
+        verify(eventPublisher, times(2)).publishEvent(any(SeatsChangedEvent.class));
+    }
+
+    @Test
+    void releaseSeats_unknownFlight_skippedWithoutFailingOthers() {
+        when(flightRepository.releaseSeats(101, 2)).thenReturn(1);
+        when(flightRepository.releaseSeats(999, 4)).thenReturn(0);
+
+        flightService.releaseSeats(Map.of(101, 2, 999, 4));
+
+        verify(eventPublisher, times(1)).publishEvent(any(SeatsChangedEvent.class));
+    }
+
+    @Test
+    void releaseSeats_ledgerEnabled_appliedOnlyAfterCommit() {
+        when(seatLedger.isEnabled()).thenReturn(true);
+        when(seatLedger.release(101, 2)).thenReturn(2);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            flightService.releaseSeats(Map.of(101, 2));
+            verify(seatLedger, never()).release(anyInt(), anyInt());
+
+            // What the transaction manager does once the release transaction commits
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(seatLedger).release(101, 2);
+        verify(eventPublisher).publishEvent(any(SeatsChangedEvent.class));
+        verify(flightRepository, never()).releaseSeats(anyInt(), anyInt());
+    }
+
+    @Test
+    void releaseSeats_ledgerEnabled_rolledBack_leavesLedgerUntouched() {
+        when(seatLedger.isEnabled()).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            flightService.releaseSeats(Map.of(101, 2));
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(seatLedger, never()).release(anyInt(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
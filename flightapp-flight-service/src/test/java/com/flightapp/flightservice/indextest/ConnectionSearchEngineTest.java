@@ -0,0 +1,206 @@
+package com.flightapp.flightservice.indextest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.flightapp.flightservice.dto.request.ConnectionSearchRequest;
+import com.flightapp.flightservice.dto.response.ItineraryOptionDto;
+import com.flightapp.flightservice.entity.Airline;
+import com.flightapp.flightservice.entity.ConnectionSort;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.entity.FlightStatus;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
+import com.flightapp.flightservice.index.ConnectionSearchEngine;
+import com.flightapp.flightservice.index.FlightSearchIndex;
+import com.flightapp.flightservice.repository.FlightRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionSearchEngineTest {
+
+    @Mock
+    private FlightSearchIndex searchIndex;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @InjectMocks
+    private ConnectionSearchEngine engine;
+
+    private Airline airline;
+    private LocalDate journeyDate;
+
+    @BeforeEach
+    void setUp() {
+        airline = new Airline();
+        airline.setId(1);
+        airline.setName("Air India");
+        airline.setCode("AI");
+
+        journeyDate = LocalDate.now().plusDays(1);
+    }
+
+    private Flight buildFlight(int id, String from, String to, LocalDateTime departure, int minutes, int price) {
+        Flight f = new Flight();
+        f.setId(id);
+        f.setAirline(airline);
+        f.setFromAirport(from);
+        f.setToAirport(to);
+        f.setDepartureTime(departure);
+        f.setArrivalTime(departure.plusMinutes(minutes));
+        f.setPrice(price);
+        f.setTotalSeats(180);
+        f.setAvailableSeats(100);
+        f.setStatus(FlightStatus.SCHEDULED);
+        return f;
+    }
+
+    private ConnectionSearchRequest request(int maxStops, ConnectionSort sortBy) {
+        ConnectionSearchRequest req = new ConnectionSearchRequest();
+        req.setFrom("DEL");
+        req.setTo("MAA");
+        req.setJourneyDate(journeyDate);
+        req.setMaxStops(maxStops);
+        req.setMinConnectionMinutes(45);
+        req.setMaxConnectionMinutes(240);
+        req.setSortBy(sortBy);
+        return req;
+    }
+
+    private void schedule(Flight... flights) {
+        when(searchIndex.isLoaded()).thenReturn(false);
+        when(flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED)).thenReturn(List.of(flights));
+    }
+
+    @Test
+    void search_findsDirectAndConnectingItinerariesByPrice() {
+        schedule(
+                buildFlight(1, "DEL", "MAA", journeyDate.atTime(6, 0), 170, 9000),
+                buildFlight(2, "DEL", "BOM", journeyDate.atTime(7, 0), 120, 3000),
+                buildFlight(3, "BOM", "MAA", journeyDate.atTime(10, 0), 110, 2500),
+                // Leaves 20 minutes after flight 2 lands, below the minimum connection time
+                buildFlight(4, "BOM", "MAA", journeyDate.atTime(9, 20), 110, 1000),
+                // Leaves 6 hours after flight 2 lands, above the maximum connection time
+                buildFlight(5, "BOM", "MAA", journeyDate.atTime(15, 0), 110, 1000));
+
+        List<ItineraryOptionDto> results = engine.search(request(1, ConnectionSort.PRICE));
+
+        assertEquals(2, results.size());
+        assertEquals(5500, results.get(0).getTotalPrice());
+        assertEquals(1, results.get(0).getStops());
+        assertEquals(2, results.get(0).getLegs().get(0).getFlightId());
+        assertEquals(3, results.get(0).getLegs().get(1).getFlightId());
+        assertEquals(290, results.get(0).getTotalDurationMinutes());
+        assertEquals(0, results.get(1).getStops());
+    }
+
+    @Test
+    void search_sortsByDurationAndRespectsStopLimit() {
+        schedule(
+                buildFlight(1, "DEL", "MAA", journeyDate.atTime(6, 0), 170, 9000),
+                buildFlight(2, "DEL", "BOM", journeyDate.atTime(7, 0), 120, 3000),
+                buildFlight(3, "BOM", "HYD", journeyDate.atTime(10, 0), 80, 1000),
+                buildFlight(4, "HYD", "MAA", journeyDate.atTime(12, 30), 60, 1000));
+
+        List<ItineraryOptionDto> direct = engine.search(request(0, ConnectionSort.DURATION));
+        assertEquals(1, direct.size());
+        assertEquals(1, direct.get(0).getLegs().get(0).getFlightId());
+
+        List<ItineraryOptionDto> twoStops = engine.search(request(2, ConnectionSort.DURATION));
+        assertEquals(2, twoStops.size());
+        assertEquals(0, twoStops.get(0).getStops());
+        assertEquals(2, twoStops.get(1).getStops());
+        assertEquals(5000, twoStops.get(1).getTotalPrice());
+    }
+
+    @Test
+    void search_keepsOnlyTopK() {
+        schedule(
+                buildFlight(1, "DEL", "MAA", journeyDate.atTime(6, 0), 170, 9000),
+                buildFlight(2, "DEL", "MAA", journeyDate.atTime(8, 0), 170, 7000),
+                buildFlight(3, "DEL", "MAA", journeyDate.atTime(10, 0), 170, 8000),
+                buildFlight(4, "DEL", "MAA", journeyDate.atTime(12, 0), 170, 6000));
+
+        ConnectionSearchRequest req = request(1, ConnectionSort.PRICE);
+        req.setLimit(2);
+        List<ItineraryOptionDto> results = engine.search(req);
+
+        assertEquals(2, results.size());
+        assertEquals(6000, results.get(0).getTotalPrice());
+        assertEquals(7000, results.get(1).getTotalPrice());
+    }
+
+    @Test
+    void onFlightsAdded_rebuildsGraphOnNextSearch() {
+        schedule(buildFlight(1, "DEL", "MAA", journeyDate.atTime(6, 0), 170, 9000));
+
+        engine.search(request(1, ConnectionSort.PRICE));
+        engine.search(request(1, ConnectionSort.PRICE));
+        verify(flightRepository, times(1)).findAllWithAirlineByStatus(FlightStatus.SCHEDULED);
+
+        engine.onFlightsAdded(new FlightsAddedEvent(List.of()));
+        assertEquals(1, engine.search(request(1, ConnectionSort.PRICE)).size());
+        verify(flightRepository, times(2)).findAllWithAirlineByStatus(FlightStatus.SCHEDULED);
+    }
+
+    @Test
+    void search_whileFlightsAreAdded_neverFails() throws Exception {
+        List<Flight> initial = new ArrayList<>();
+        initial.add(buildFlight(1, "DEL", "BOM", journeyDate.atTime(7, 0), 120, 3000));
+        initial.add(buildFlight(2, "BOM", "MAA", journeyDate.atTime(10, 0), 110, 2500));
+        // A large schedule keeps each rebuild long enough for additions to land in the middle of it
+        for (int n = 0; n < 20000; n++) {
+            initial.add(buildFlight(10000 + n, "A" + n % 200, "B" + n % 200, journeyDate.atTime(6, 0), 60, 1000));
+        }
+        when(flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED)).thenReturn(initial);
+        FlightSearchIndex index = new FlightSearchIndex(flightRepository);
+        index.load();
+        ConnectionSearchEngine liveEngine = new ConnectionSearchEngine(index, flightRepository);
+
+        // Every added flight opens a new airport, so a rebuild that sees it in one pass only fails
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (int n = 0; n < 5000; n++) {
+                    Flight f = buildFlight(100000 + n, "X" + n, "MAA", journeyDate.atTime(12, 0), 60, 1000);
+                    index.onFlightsAdded(new FlightsAddedEvent(List.of(f)));
+                    liveEngine.onFlightsAdded(new FlightsAddedEvent(List.of(f)));
+                }
+                done.set(true);
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!done.get()) {
+                        assertEquals(1, liveEngine.search(request(1, ConnectionSort.PRICE)).size());
+                    }
+                }));
+            }
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
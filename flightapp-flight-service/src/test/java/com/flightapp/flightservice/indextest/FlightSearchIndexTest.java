@@ -0,0 +1,188 @@
+package com.flightapp.flightservice.indextest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+
+import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.entity.Airline;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.entity.FlightSort;
+import com.flightapp.flightservice.entity.FlightStatus;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
+import com.flightapp.flightservice.event.SeatsChangedEvent;
+import com.flightapp.flightservice.index.FlightSearchIndex;
+import com.flightapp.flightservice.repository.FlightRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FlightSearchIndexTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @InjectMocks
+    private FlightSearchIndex searchIndex;
+
+    private Airline airline;
+    private LocalDate journeyDate;
+
+    @BeforeEach
+    void setUp() {
+        airline = new Airline();
+        airline.setId(1);
+        airline.setName("Air India");
+        airline.setCode("AI");
+
+        journeyDate = LocalDate.now().plusDays(1);
+    }
+
+    private Flight buildFlight(int id, String from, String to, LocalDateTime departure) {
+        Flight f = new Flight();
+        f.setId(id);
+        f.setAirline(airline);
+        f.setFromAirport(from);
+        f.setToAirport(to);
+        f.setDepartureTime(departure);
+        f.setArrivalTime(departure.plusHours(2));
+        f.setPrice(5000);
+        f.setTotalSeats(180);
+        f.setAvailableSeats(100);
+        f.setStatus(FlightStatus.SCHEDULED);
+        return f;
+    }
+
+    @Test
+    void load_searchReturnsFlightsSortedByDeparture() {
+        Flight late = buildFlight(2, "DEL", "BOM", journeyDate.atTime(18, 0));
+        Flight early = buildFlight(1, "DEL", "BOM", journeyDate.atTime(6, 0));
+        Flight otherDay = buildFlight(3, "DEL", "BOM", journeyDate.plusDays(1).atTime(6, 0));
+        Flight otherRoute = buildFlight(4, "BOM", "DEL", journeyDate.atTime(9, 0));
+
+        when(flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED))
+                .thenReturn(List.of(late, early, otherDay, otherRoute));
+
+        assertFalse(searchIndex.isLoaded());
+        searchIndex.load();
+        assertTrue(searchIndex.isLoaded());
+
+        List<FlightSummaryDto> results = searchIndex.search("del", "bom", journeyDate);
+
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).getFlightId());
+        assertEquals(2, results.get(1).getFlightId());
+        assertEquals("AI", results.get(0).getAirlineCode());
+        assertEquals(journeyDate.atTime(6, 0), results.get(0).getDepartureTime());
+    }
+
+    @Test
+    void onFlightsAdded_insertsIntoExistingBucket() {
+        when(flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED))
+                .thenReturn(List.of(buildFlight(1, "DEL", "BOM", journeyDate.atTime(12, 0))));
+        searchIndex.load();
+
+        searchIndex.onFlightsAdded(new FlightsAddedEvent(List.of(buildFlight(5, "DEL", "BOM", journeyDate.atTime(8, 0)))));
+
+        List<FlightSummaryDto> results = searchIndex.search("DEL", "BOM", journeyDate);
+        assertEquals(2, results.size());
+        assertEquals(5, results.get(0).getFlightId());
+    }
+
+    @Test
+    void onSeatsChanged_updatesAvailabilityWithinBounds() {
+        when(flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED))
+                .thenReturn(List.of(buildFlight(1, "DEL", "BOM", journeyDate.atTime(12, 0))));
+        searchIndex.load();
+
+        searchIndex.onSeatsChanged(new SeatsChangedEvent(1, -3));
+        assertEquals(97, searchIndex.search("DEL", "BOM", journeyDate).get(0).getAvailableSeats());
+
+        searchIndex.onSeatsChanged(new SeatsChangedEvent(1, 500));
+        assertEquals(180, searchIndex.search("DEL", "BOM", journeyDate).get(0).getAvailableSeats());
+    }
+
+    @Test
+    void select_filtersWindowAndKeepsTopKByPrice() {
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Flight f = buildFlight(i + 1, "DEL", "BOM", journeyDate.atTime(6 + i, 0));
+            f.setPrice(9000 - i * 500);
+            flights.add(f);
+        }
+        when(flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED)).thenReturn(flights);
+        searchIndex.load();
+
+        // Departures 08:00 up to but excluding 14:00 are flights 3..8; flight 8 is filtered out
+        List<FlightSummaryDto> cheapest = searchIndex.select("DEL", "BOM", journeyDate,
+                journeyDate.atTime(8, 0), journeyDate.atTime(14, 0), f -> f.getId() != 8, FlightSort.PRICE, 2);
+
+        assertEquals(2, cheapest.size());
+        assertEquals(7, cheapest.get(0).getFlightId());
+        assertEquals(6, cheapest.get(1).getFlightId());
+
+        List<FlightSummaryDto> earliest = searchIndex.select("DEL", "BOM", journeyDate,
+                journeyDate.atTime(8, 0), journeyDate.atTime(14, 0), f -> true, FlightSort.DEPARTURE, 3);
+
+        assertEquals(List.of(3, 4, 5), earliest.stream().map(FlightSummaryDto::getFlightId).toList());
+    }
+
+    @Test
+    void load_runsBeforeListenersStart_soEarlyDeltasApplyOnce() {
+        // Stands in for the flight row: the snapshot and the deltas both come from it
+        AtomicInteger seatsInDatabase = new AtomicInteger(100);
+        when(flightRepository.findAllWithAirlineByStatus(FlightStatus.SCHEDULED)).thenAnswer(inv -> {
+            Flight f = buildFlight(1, "DEL", "BOM", journeyDate.atTime(12, 0));
+            f.setAvailableSeats(seatsInDatabase.get());
+            return List.of(f);
+        });
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(TransactionalEventListenerFactory.class);
+            context.registerBean(FlightRepository.class, () -> flightRepository);
+            context.registerBean(FlightSearchIndex.class);
+            // Like a Kafka listener container: reserves seats as soon as it is started
+            context.registerBean("consumer", SmartLifecycle.class, () -> new SmartLifecycle() {
+                private boolean running;
+
+                @Override
+                public void start() {
+                    assertTrue(context.getBean(FlightSearchIndex.class).isLoaded());
+                    seatsInDatabase.addAndGet(-3);
+                    context.publishEvent(new SeatsChangedEvent(1, -3));
+                    running = true;
+                }
+
+                @Override
+                public void stop() {
+                    running = false;
+                }
+
+                @Override
+                public boolean isRunning() {
+                    return running;
+                }
+            });
+            context.refresh();
+
+            FlightSearchIndex index = context.getBean(FlightSearchIndex.class);
+            assertEquals(97, seatsInDatabase.get());
+            assertEquals(97, index.search("DEL", "BOM", journeyDate).get(0).getAvailableSeats());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.flightapp.flightservice.ledgertest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.flightapp.flightservice.exception.ResourceNotFoundException;
+import com.flightapp.flightservice.exception.SeatNotAvailableException;
+import com.flightapp.flightservice.ledger.SeatLedger;
+
+@ExtendWith(MockitoExtension.class)
+class SeatLedgerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SeatLedger seatLedger;
+
+    @BeforeEach
+    void setUp() {
+        seatLedger = new SeatLedger(jdbcTemplate, true, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubFlightRow(int flightId, int available, int total) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(flightId))).thenAnswer(inv -> {
+            RowMapper<Object> mapper = inv.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getInt(1)).thenReturn(available);
+            when(rs.getInt(2)).thenReturn(total);
+            return List.of(mapper.mapRow(rs, 0));
+        });
+    }
+
+    @Test
+    void reserveAndRelease_answeredFromMemory() {
+        stubFlightRow(101, 10, 10);
+
+        seatLedger.reserve(101, 4);
+        assertEquals(6, seatLedger.getAvailableSeats(101).getAsInt());
+
+        // Release is capped at total seats
+        assertEquals(4, seatLedger.release(101, 7));
+        assertEquals(10, seatLedger.getAvailableSeats(101).getAsInt());
+    }
+
+    @Test
+    void reserve_notEnoughSeats_throwsException() {
+        stubFlightRow(101, 1, 10);
+
+        assertThrows(SeatNotAvailableException.class, () -> seatLedger.reserve(101, 2));
+        assertEquals(1, seatLedger.getAvailableSeats(101).getAsInt());
+    }
+
+    @Test
+    void reserve_unknownFlight_throwsException() {
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), eq(999))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> seatLedger.reserve(999, 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_coalescesDeltasIntoOneBatch() {
+        stubFlightRow(101, 100, 100);
+        stubFlightRow(202, 100, 100);
+
+        seatLedger.reserve(101, 2);
+        seatLedger.reserve(101, 3);
+        seatLedger.reserve(202, 1);
+
+        seatLedger.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+        List<Object[]> batch = captor.getValue();
+        assertEquals(2, batch.size());
+        int total = batch.stream().mapToInt(args -> (int) args[0]).sum();
+        assertEquals(-6, total);
+
+        // Nothing pending, nothing written
+        seatLedger.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void concurrentReservations_neverOversell() throws InterruptedException {
+        stubFlightRow(101, 50, 50);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            pool.submit(() -> {
+                try {
+                    seatLedger.reserve(101, 1);
+                    succeeded.incrementAndGet();
+                } catch (SeatNotAvailableException e) {
+                    // expected once sold out
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertEquals(50, succeeded.get());
+        assertEquals(0, seatLedger.getAvailableSeats(101).getAsInt());
+    }
+
+    @Test
+    void disabledLedger_neverFlushes() {
+        SeatLedger disabled = new SeatLedger(jdbcTemplate, false, false);
+
+        disabled.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void enabledLedger_withoutSingleInstance_refusesToStart() {
+        assertThrows(IllegalStateException.class, () -> new SeatLedger(jdbcTemplate, true, false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recover_keepsCountersLoadedBeforeIt() {
+        stubFlightRow(101, 10, 10);
+        seatLedger.reserve(101, 4);
+
+        // Recovery reads the row as it was before the reservation was flushed
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getInt(1)).thenReturn(101);
+            when(rs.getInt(2)).thenReturn(10);
+            when(rs.getInt(3)).thenReturn(10);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        seatLedger.recover();
+        assertEquals(6, seatLedger.getAvailableSeats(101).getAsInt());
+
+        seatLedger.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        assertEquals(-4, (int) captor.getValue().get(0)[0]);
+    }
+}
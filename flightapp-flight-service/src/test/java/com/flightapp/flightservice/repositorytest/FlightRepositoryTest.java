@@ -0,0 +1,189 @@
+package com.flightapp.flightservice.repositorytest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import com.flightapp.flightservice.dto.response.FlightSummaryDto;
+import com.flightapp.flightservice.entity.Airline;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.entity.FlightStatus;
+import com.flightapp.flightservice.repository.FlightRepository;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class FlightRepositoryTest {
+
+    private static final int FLIGHT_COUNT = 40;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    private LocalDate journeyDate;
+    private Statistics statistics;
+    private int firstFlightId;
+
+    @BeforeEach
+    void setUp() {
+        journeyDate = LocalDate.now().plusDays(1);
+
+        for (int a = 0; a < FLIGHT_COUNT; a++) {
+            // One airline per flight, so an N+1 on the lazy association would be visible
+            Airline airline = new Airline();
+            airline.setName("Airline " + a);
+            airline.setCode("A" + a);
+            entityManager.persist(airline);
+
+            Flight f = new Flight();
+            f.setAirline(airline);
+            f.setFromAirport("DEL");
+            f.setToAirport("BOM");
+            f.setDepartureTime(journeyDate.atStartOfDay().plusMinutes(30L * a));
+            f.setArrivalTime(journeyDate.atStartOfDay().plusMinutes(30L * a + 120));
+            f.setPrice(4000 + a);
+            f.setTotalSeats(180);
+            f.setAvailableSeats(180);
+            f.setStatus(FlightStatus.SCHEDULED);
+            entityManager.persist(f);
+            if (a == 0) {
+                firstFlightId = f.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchSummaries_multipleResults_singleStatement() {
+        LocalDateTime start = journeyDate.atStartOfDay();
+
+        List<FlightSummaryDto> results = flightRepository.searchSummaries(
+                "DEL", "BOM", start, start.plusDays(1), FlightStatus.SCHEDULED);
+
+        assertEquals(FLIGHT_COUNT, results.size());
+        assertEquals("A0", results.get(0).getAirlineCode());
+        assertEquals("Airline 39", results.get(FLIGHT_COUNT - 1).getAirlineName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchSummariesAfter_pagesThroughAllFlightsInOrder() {
+        LocalDateTime start = journeyDate.atStartOfDay();
+        LocalDateTime afterDeparture = start;
+        int afterId = Integer.MIN_VALUE;
+        int seen = 0;
+        int pages = 0;
+
+        List<FlightSummaryDto> page;
+        do {
+            page = flightRepository.searchSummariesAfter("DEL", "BOM", start, start.plusDays(1),
+                    FlightStatus.SCHEDULED, afterDeparture, afterId, Limit.of(15));
+            for (FlightSummaryDto f : page) {
+                assertTrue(f.getDepartureTime().isAfter(afterDeparture)
+                        || (f.getDepartureTime().equals(afterDeparture) && f.getFlightId() > afterId));
+                afterDeparture = f.getDepartureTime();
+                afterId = f.getFlightId();
+                seen++;
+            }
+            pages++;
+        } while (page.size() == 15);
+
+        assertEquals(FLIGHT_COUNT, seen);
+        assertEquals(3, pages);
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchSummariesFiltered_appliesFiltersSortAndLimitInQuery() {
+        LocalDateTime start = journeyDate.atStartOfDay();
+
+        // Prices are 4000 + n, so the price window keeps flights 10..29 and the limit keeps the three dearest
+        List<FlightSummaryDto> results = flightRepository.searchSummariesFiltered("DEL", "BOM", start, start.plusDays(1),
+                FlightStatus.SCHEDULED, 4010, 4029, null, 1, Sort.by(Sort.Direction.DESC, "price"), Limit.of(3));
+
+        assertEquals(3, results.size());
+        assertEquals(4029, results.get(0).getPrice());
+        assertEquals(4027, results.get(2).getPrice());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        List<FlightSummaryDto> byAirline = flightRepository.searchSummariesFiltered("DEL", "BOM", start, start.plusDays(1),
+                FlightStatus.SCHEDULED, null, null, "A7", null, Sort.by("departureTime"), Limit.unlimited());
+
+        assertEquals(1, byAirline.size());
+        assertEquals("Airline 7", byAirline.get(0).getAirlineName());
+    }
+
+    @Test
+    void streamSummaries_readsEveryFlight() {
+        LocalDateTime start = journeyDate.atStartOfDay();
+
+        try (Stream<FlightSummaryDto> flights = flightRepository.streamSummaries("DEL", "BOM", start, start.plusDays(1),
+                FlightStatus.SCHEDULED)) {
+            assertEquals(FLIGHT_COUNT, flights.count());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findSummaryById_singleStatement() {
+        Optional<FlightSummaryDto> result = flightRepository.findSummaryById(firstFlightId);
+
+        assertTrue(result.isPresent());
+        assertEquals("Airline 0", result.get().getAirlineName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findSummariesByIdIn_singleStatement() {
+        List<FlightSummaryDto> results = flightRepository.findSummariesByIdIn(
+                List.of(firstFlightId, firstFlightId + 1, firstFlightId + 2));
+
+        assertEquals(3, results.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void reserveSeats_guardedByAvailability() {
+        assertEquals(1, flightRepository.reserveSeats(firstFlightId, 178));
+        assertEquals(0, flightRepository.reserveSeats(firstFlightId, 3));
+        entityManager.clear();
+
+        assertEquals(2, entityManager.find(Flight.class, firstFlightId).getAvailableSeats());
+    }
+
+    @Test
+    void releaseSeats_cappedAtTotalSeats() {
+        flightRepository.reserveSeats(firstFlightId, 4);
+
+        assertEquals(1, flightRepository.releaseSeats(firstFlightId, 10));
+        assertEquals(0, flightRepository.releaseSeats(-1, 10));
+        entityManager.clear();
+
+        assertEquals(180, entityManager.find(Flight.class, firstFlightId).getAvailableSeats());
+    }
+}
@@ -0,0 +1,73 @@
+package com.flightapp.flightservice.servicetest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.flightapp.flightservice.dedupe.ProcessedCancellationStore;
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+import com.flightapp.flightservice.service.CancellationProcessor;
+import com.flightapp.flightservice.service.FlightService;
+
+@ExtendWith(MockitoExtension.class)
+class CancellationProcessorTest {
+
+    @Mock
+    private FlightService flightService;
+
+    @Mock
+    private ProcessedCancellationStore processedStore;
+
+    @InjectMocks
+    private CancellationProcessor processor;
+
+    @Test
+    void process_massCancellation_oneReleasePerFlight() {
+        List<BookingCancelledEvent> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            events.add(new BookingCancelledEvent("PNR" + i, 100 + i % 3, 2));
+        }
+        when(processedStore.findProcessed(anyCollection())).thenReturn(Set.of());
+
+        processor.process(events);
+
+        // 334 + 333 + 333 bookings of two seats each
+        verify(flightService).releaseSeats(Map.of(100, 668, 101, 666, 102, 666));
+    }
+
+    @Test
+    void process_redeliveredEvents_releasedOnce() {
+        BookingCancelledEvent first = new BookingCancelledEvent("PNR1", 101, 2);
+        BookingCancelledEvent second = new BookingCancelledEvent("PNR2", 101, 3);
+        when(processedStore.findProcessed(anyCollection())).thenReturn(Set.of("PNR1:101"));
+
+        // PNR2 appears twice in the batch and PNR1 was handled by an earlier batch
+        processor.process(List.of(first, second, second));
+
+        verify(processedStore).markProcessed(List.of("PNR2:101"));
+        verify(flightService).releaseSeats(Map.of(101, 3));
+    }
+
+    @Test
+    void process_allAlreadyProcessed_noUpdate() {
+        when(processedStore.findProcessed(anyCollection())).thenReturn(Set.of("PNR1:101"));
+
+        processor.process(List.of(new BookingCancelledEvent("PNR1", 101, 2)));
+
+        verify(processedStore, never()).markProcessed(any());
+        verify(flightService, never()).releaseSeats(any());
+    }
+}
@@ -0,0 +1,55 @@
+package com.flightapp.flightservice.servicetest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.flightapp.flightservice.dto.response.FlightChangedEvent;
+import com.flightapp.flightservice.entity.Flight;
+import com.flightapp.flightservice.event.FlightsAddedEvent;
+import com.flightapp.flightservice.service.FlightChangePublisher;
+
+@ExtendWith(MockitoExtension.class)
+class FlightChangePublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, FlightChangedEvent> kafkaTemplate;
+
+    @InjectMocks
+    private FlightChangePublisher publisher;
+
+    private Flight flight(int id) {
+        Flight f = new Flight();
+        f.setId(id);
+        return f;
+    }
+
+    @Test
+    void onFlightsAdded_publishesOneEventPerFlightKeyedById() {
+        publisher.onFlightsAdded(new FlightsAddedEvent(List.of(flight(101), flight(202))));
+
+        verify(kafkaTemplate).send(FlightChangePublisher.TOPIC, "101", new FlightChangedEvent(101, "CREATED"));
+        verify(kafkaTemplate).send(FlightChangePublisher.TOPIC, "202", new FlightChangedEvent(202, "CREATED"));
+    }
+
+    @Test
+    void onFlightsAdded_sendFailure_isNotFatal() {
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenThrow(new IllegalStateException("broker down"));
+
+        publisher.onFlightsAdded(new FlightsAddedEvent(List.of(flight(101), flight(202))));
+
+        verify(kafkaTemplate, times(2)).send(eq(FlightChangePublisher.TOPIC), anyString(), any());
+    }
+}
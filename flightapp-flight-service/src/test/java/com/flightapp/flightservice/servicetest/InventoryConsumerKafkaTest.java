@@ -0,0 +1,201 @@
+package com.flightapp.flightservice.servicetest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.flightapp.flightservice.codec.BookingCancelledEventDeserializer;
+import com.flightapp.flightservice.codec.BookingCancelledEventSerializer;
+import com.flightapp.flightservice.dedupe.ProcessedCancellationStore;
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+import com.flightapp.flightservice.service.CancellationProcessor;
+import com.flightapp.flightservice.service.FlightService;
+import com.flightapp.flightservice.service.InventoryConsumer;
+
+@ExtendWith(MockitoExtension.class)
+@EmbeddedKafka(partitions = 1, topics = { InventoryConsumerKafkaTest.BATCH_TOPIC, InventoryConsumerKafkaTest.POISON_TOPIC })
+class InventoryConsumerKafkaTest {
+
+    static final String BATCH_TOPIC = "cancellations-batch";
+    static final String POISON_TOPIC = "cancellations-poison";
+
+    private static final int POISON_FLIGHT = 999;
+
+    @Mock
+    private FlightService flightService;
+
+    @Mock
+    private ProcessedCancellationStore processedStore;
+
+    @Mock
+    private KafkaTemplate<String, BookingCancelledEvent> retryTemplate;
+
+    private final List<Map<Integer, Integer>> releases = Collections.synchronizedList(new ArrayList<>());
+
+    private InventoryConsumer consumer() {
+        when(processedStore.findProcessed(any())).thenReturn(Set.of());
+        doAnswer(inv -> {
+            Map<Integer, Integer> seatsByFlight = inv.getArgument(0);
+            if (seatsByFlight.containsKey(POISON_FLIGHT)) {
+                throw new IllegalStateException("flight row locked");
+            }
+            releases.add(Map.copyOf(seatsByFlight));
+            return null;
+        }).when(flightService).releaseSeats(anyMap());
+        return new InventoryConsumer(new CancellationProcessor(flightService, processedStore), retryTemplate, Runnable::run, 1);
+    }
+
+    private void produce(EmbeddedKafkaBroker broker, String topic, List<BookingCancelledEvent> events) {
+        DefaultKafkaProducerFactory<String, BookingCancelledEvent> producerFactory = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new BookingCancelledEventSerializer());
+        KafkaTemplate<String, BookingCancelledEvent> template = new KafkaTemplate<>(producerFactory);
+        for (BookingCancelledEvent event : events) {
+            template.send(topic, String.valueOf(event.getFlightId()), event);
+        }
+        template.flush();
+        producerFactory.destroy();
+    }
+
+    private KafkaMessageListenerContainer<String, BookingCancelledEvent> container(EmbeddedKafkaBroker broker, String topic,
+            String group, BatchMessageListener<String, BookingCancelledEvent> listener, DefaultErrorHandler errorHandler) {
+        Map<String, Object> props = new HashMap<>(KafkaTestUtils.consumerProps(broker, group, false));
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        DefaultKafkaConsumerFactory<String, BookingCancelledEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new BookingCancelledEventDeserializer());
+
+        // Same ack mode as spring.kafka.listener.ack-mode in application.properties
+        ContainerProperties containerProps = new ContainerProperties(topic);
+        containerProps.setAckMode(ContainerProperties.AckMode.BATCH);
+        containerProps.setMessageListener(listener);
+        KafkaMessageListenerContainer<String, BookingCancelledEvent> container = new KafkaMessageListenerContainer<>(consumerFactory, containerProps);
+        container.setCommonErrorHandler(errorHandler);
+        return container;
+    }
+
+    private static long committed(EmbeddedKafkaBroker broker, String group, String topic) throws Exception {
+        OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(), group, topic, 0);
+        return offset == null ? 0 : offset.offset();
+    }
+
+    private static void awaitCommitted(EmbeddedKafkaBroker broker, String group, String topic, long expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 20000;
+        while (committed(broker, group, topic) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(expected, committed(broker, group, topic));
+    }
+
+    @Test
+    void batch_releasesSeatsOncePerFlightPerPoll_andCommitsAfterRelease(EmbeddedKafkaBroker broker) throws Exception {
+        String group = "inventory-batch-test";
+        InventoryConsumer consumer = consumer();
+
+        List<BookingCancelledEvent> events = new ArrayList<>();
+        for (int n = 0; n < 300; n++) {
+            events.add(new BookingCancelledEvent("PNR" + n, 101 + (n % 3) * 101, 2));
+        }
+        produce(broker, BATCH_TOPIC, events);
+
+        // First offset of each poll, and the group's committed offset once that poll was applied
+        List<Long> batchStarts = Collections.synchronizedList(new ArrayList<>());
+        List<Long> committedAfterRelease = Collections.synchronizedList(new ArrayList<>());
+        KafkaMessageListenerContainer<String, BookingCancelledEvent> container = container(broker, BATCH_TOPIC, group, records -> {
+            batchStarts.add(records.get(0).offset());
+            consumer.handleCancellations(records.stream().map(ConsumerRecord::value).toList());
+            try {
+                committedAfterRelease.add(committed(broker, group, BATCH_TOPIC));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, new DefaultErrorHandler(new FixedBackOff(0L, 0L)));
+        container.start();
+        try {
+            ContainerTestUtils.waitForAssignment(container, 1);
+            awaitCommitted(broker, group, BATCH_TOPIC, 300);
+        } finally {
+            container.stop();
+        }
+
+        // One aggregated update per poll, holding each flight once
+        assertEquals(batchStarts.size(), releases.size());
+        assertTrue(releases.size() < events.size());
+        Map<Integer, Integer> totals = new HashMap<>();
+        for (Map<Integer, Integer> release : releases) {
+            assertTrue(release.size() <= 3);
+            release.forEach((flightId, seats) -> totals.merge(flightId, seats, Integer::sum));
+        }
+        assertEquals(Map.of(101, 200, 202, 200, 303, 200), totals);
+
+        // The container commits a poll only after the listener returns, so nothing of a poll is
+        // committed while its seats are being released
+        for (int i = 0; i < batchStarts.size(); i++) {
+            assertTrue(committedAfterRelease.get(i) <= batchStarts.get(i));
+        }
+    }
+
+    @Test
+    void failedRecord_offsetsBeforeItCommitted_andNothingAppliedTwice(EmbeddedKafkaBroker broker) throws Exception {
+        String group = "inventory-poison-test";
+        InventoryConsumer consumer = consumer();
+        when(retryTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("retry topic unavailable")));
+
+        List<BookingCancelledEvent> events = new ArrayList<>();
+        for (int n = 0; n < 10; n++) {
+            events.add(new BookingCancelledEvent("PNR" + n, n == 5 ? POISON_FLIGHT : 101, 1));
+        }
+        produce(broker, POISON_TOPIC, events);
+
+        List<Long> recovered = Collections.synchronizedList(new ArrayList<>());
+        KafkaMessageListenerContainer<String, BookingCancelledEvent> container = container(broker, POISON_TOPIC, group,
+                records -> consumer.handleCancellations(records.stream().map(ConsumerRecord::value).toList()),
+                new DefaultErrorHandler((record, e) -> recovered.add(record.offset()), new FixedBackOff(0L, 1L)));
+        container.start();
+        try {
+            ContainerTestUtils.waitForAssignment(container, 1);
+            awaitCommitted(broker, group, POISON_TOPIC, 10);
+        } finally {
+            container.stop();
+        }
+
+        // Only the failed record was redelivered; the nine others released their seat exactly once
+        assertEquals(List.of(5L), recovered);
+        int released = releases.stream().mapToInt(r -> r.getOrDefault(101, 0)).sum();
+        assertEquals(9, released);
+    }
+}
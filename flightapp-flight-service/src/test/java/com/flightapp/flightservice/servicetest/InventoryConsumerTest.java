@@ -0,0 +1,190 @@
+package com.flightapp.flightservice.servicetest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import com.flightapp.flightservice.dto.request.BookingCancelledEvent;
+import com.flightapp.flightservice.service.CancellationProcessor;
+import com.flightapp.flightservice.service.InventoryConsumer;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryConsumerTest {
+
+    @Mock
+    private CancellationProcessor cancellationProcessor;
+
+    @Mock
+    private KafkaTemplate<String, BookingCancelledEvent> kafkaTemplate;
+
+    private InventoryConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new InventoryConsumer(cancellationProcessor, kafkaTemplate, Runnable::run, 1);
+    }
+
+    @Test
+    void handleCancellations_skipsUnreadableRecords() {
+        BookingCancelledEvent readable = new BookingCancelledEvent("PNR2", 101, 1);
+
+        consumer.handleCancellations(Arrays.asList(null, new BookingCancelledEvent("PNR1", null, 1),
+                new BookingCancelledEvent(null, 101, 1), readable));
+
+        verify(cancellationProcessor).process(List.of(readable));
+    }
+
+    @Test
+    void handleCancellations_nothingReadable_noUpdate() {
+        consumer.handleCancellations(Arrays.asList((BookingCancelledEvent) null));
+
+        verify(cancellationProcessor, never()).process(any());
+    }
+
+    @Test
+    void handleCancellations_poisonEvent_othersAppliedAndPoisonSentToRetryTopic() {
+        BookingCancelledEvent good = new BookingCancelledEvent("PNR1", 101, 1);
+        BookingCancelledEvent poison = new BookingCancelledEvent("PNR2", 999, 1);
+        doAnswer(inv -> {
+            if (inv.<List<BookingCancelledEvent>>getArgument(0).contains(poison)) {
+                throw new IllegalStateException("Unknown flight 999");
+            }
+            return null;
+        }).when(cancellationProcessor).process(any());
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.handleCancellations(List.of(good, poison));
+
+        verify(cancellationProcessor).process(List.of(good));
+        verify(kafkaTemplate).send(InventoryConsumer.RETRY_TOPIC, "999", poison);
+        verify(kafkaTemplate, never()).send(InventoryConsumer.RETRY_TOPIC, "101", good);
+    }
+
+    @Test
+    void handleCancellations_parallel_keepsOrderPerFlight() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        InventoryConsumer parallel = new InventoryConsumer(cancellationProcessor, kafkaTemplate, pool, 4);
+
+        List<BookingCancelledEvent> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            events.add(new BookingCancelledEvent("PNR" + i, 100 + i % 10, 1));
+        }
+        Map<Integer, List<String>> applied = new ConcurrentHashMap<>();
+        Map<Integer, String> threads = new ConcurrentHashMap<>();
+        doAnswer(inv -> {
+            for (BookingCancelledEvent e : inv.<List<BookingCancelledEvent>>getArgument(0)) {
+                applied.computeIfAbsent(e.getFlightId(), id -> new ArrayList<>()).add(e.getPnr());
+                threads.put(e.getFlightId(), Thread.currentThread().getName());
+            }
+            return null;
+        }).when(cancellationProcessor).process(any());
+
+        try {
+            parallel.handleCancellations(events);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(10, applied.size());
+        for (int flight = 100; flight < 110; flight++) {
+            List<String> expected = new ArrayList<>();
+            for (int i = flight - 100; i < 2000; i += 10) {
+                expected.add("PNR" + i);
+            }
+            assertEquals(expected, applied.get(flight));
+        }
+        // Each flight is applied as one group, off the listener thread
+        assertTrue(threads.values().stream().allMatch(name -> !name.equals(Thread.currentThread().getName())));
+    }
+
+    @Test
+    void handleCancellations_parallel_flightsRunConcurrently() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        InventoryConsumer parallel = new InventoryConsumer(cancellationProcessor, kafkaTemplate, pool, 2);
+
+        // Each flight waits for the other to start, so this only completes if both run at once
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        List<Boolean> overlapped = new ArrayList<>();
+        doAnswer(inv -> {
+            bothStarted.countDown();
+            boolean ok = bothStarted.await(5, TimeUnit.SECONDS);
+            synchronized (overlapped) {
+                overlapped.add(ok);
+            }
+            return null;
+        }).when(cancellationProcessor).process(any());
+
+        try {
+            parallel.handleCancellations(List.of(new BookingCancelledEvent("PNR1", 101, 1),
+                    new BookingCancelledEvent("PNR2", 202, 1)));
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of(true, true), overlapped);
+    }
+
+    @Test
+    void handleCancellations_retryTopicDown_reportsLowestUnfinishedRecord() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        InventoryConsumer parallel = new InventoryConsumer(cancellationProcessor, kafkaTemplate, pool, 2);
+
+        BookingCancelledEvent poison = new BookingCancelledEvent("PNR3", 202, 1);
+        BookingCancelledEvent afterPoison = new BookingCancelledEvent("PNR5", 202, 1);
+        List<BookingCancelledEvent> events = List.of(
+                new BookingCancelledEvent("PNR0", 101, 1),
+                new BookingCancelledEvent("PNR1", 202, 1),
+                new BookingCancelledEvent("PNR2", 101, 1),
+                poison,
+                new BookingCancelledEvent("PNR4", 101, 1),
+                afterPoison);
+        doAnswer(inv -> {
+            if (inv.<List<BookingCancelledEvent>>getArgument(0).contains(poison)) {
+                throw new IllegalStateException("Database unavailable for flight 202");
+            }
+            return null;
+        }).when(cancellationProcessor).process(any());
+        when(kafkaTemplate.send(InventoryConsumer.RETRY_TOPIC, "202", poison))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Kafka unavailable")));
+
+        BatchListenerFailedException e;
+        try {
+            e = assertThrows(BatchListenerFailedException.class, () -> parallel.handleCancellations(events));
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        // Offsets are committed up to PNR3; the event after it on the same flight is left for redelivery
+        assertEquals(3, e.getIndex());
+        verify(cancellationProcessor).process(List.of(events.get(1)));
+        verify(cancellationProcessor, never()).process(List.of(afterPoison));
+    }
+}
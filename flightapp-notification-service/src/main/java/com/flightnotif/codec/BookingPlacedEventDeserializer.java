@@ -0,0 +1,57 @@
+package com.flightnotif.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.flightnotif.dto.BookingPlacedEvent;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Reads a {@link BookingPlacedEvent} in the {@link EventCodec} format. JSON objects, which
+ * producers wrote before switching, are read as JSON; anything else is rejected.
+ */
+public class BookingPlacedEventDeserializer implements Deserializer<BookingPlacedEvent> {
+
+	static final int PNR = 1;
+	static final int EMAIL = 2;
+	static final int NAME = 3;
+
+	private static final ObjectMapper JSON = JsonMapper.builder()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.build();
+
+	@Override
+	public BookingPlacedEvent deserialize(String topic, byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		if (EventCodec.isJson(data)) {
+			try {
+				return JSON.readValue(data, BookingPlacedEvent.class);
+			} catch (JacksonException e) {
+				throw new SerializationException("Unreadable booking event on " + topic, e);
+			}
+		}
+		if (!EventCodec.isBinary(data)) {
+			throw EventCodec.unknownFormat(topic, data);
+		}
+
+		BookingPlacedEvent event = new BookingPlacedEvent();
+		EventCodec.Reader reader = new EventCodec.Reader(data);
+		while (reader.next()) {
+			switch (reader.tag()) {
+			case PNR -> event.setPnr(reader.string());
+			case EMAIL -> event.setEmail(reader.string());
+			case NAME -> event.setName(reader.string());
+			default -> {
+				// Field added by a newer producer
+			}
+			}
+		}
+		return event;
+	}
+}
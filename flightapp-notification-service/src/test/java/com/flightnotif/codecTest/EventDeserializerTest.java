@@ -0,0 +1,102 @@
+package com.flightnotif.codecTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import com.flightnotif.codec.BookingCancelledEventDeserializer;
+import com.flightnotif.codec.BookingPlacedEventDeserializer;
+import com.flightnotif.codec.EventCodec;
+import com.flightnotif.dto.BookingCancelledEvent;
+import com.flightnotif.dto.BookingPlacedEvent;
+
+class EventDeserializerTest {
+
+    private final BookingPlacedEventDeserializer placedDeserializer = new BookingPlacedEventDeserializer();
+    private final BookingCancelledEventDeserializer cancelledDeserializer = new BookingCancelledEventDeserializer();
+
+    // Tags as booking-service writes them
+    private static byte[] placed(String pnr, String email, String name) {
+        return new EventCodec.Writer().string(1, pnr).string(2, email).string(3, name).toByteArray();
+    }
+
+    private static byte[] cancelled(String pnr, Integer flightId, Integer seats) {
+        return new EventCodec.Writer().string(1, pnr).int32(2, flightId).int32(3, seats).toByteArray();
+    }
+
+    @Test
+    void placedEvent_roundTrip() {
+        BookingPlacedEvent event = placedDeserializer.deserialize("booking-placed-topic",
+                placed("PNR1A2B3C", "asha@example.com", "Asha Rao"));
+
+        assertEquals("PNR1A2B3C", event.getPnr());
+        assertEquals("asha@example.com", event.getEmail());
+        assertEquals("Asha Rao", event.getName());
+    }
+
+    @Test
+    void cancelledEvent_roundTrip_keepsNegativeAndMissingValues() {
+        BookingCancelledEvent event = cancelledDeserializer.deserialize("booking-cancellation-topic",
+                cancelled("PNR1A2B3C", 101, -2));
+
+        assertEquals("PNR1A2B3C", event.getPnr());
+        assertEquals(101, event.getFlightId());
+        assertEquals(-2, event.getSeatsToRelease());
+
+        BookingCancelledEvent partial = cancelledDeserializer.deserialize("booking-cancellation-topic",
+                cancelled("PNR1", null, 3));
+        assertNull(partial.getFlightId());
+        assertEquals(3, partial.getSeatsToRelease());
+    }
+
+    @Test
+    void unknownTag_fromNewerProducer_isSkipped() {
+        byte[] data = new EventCodec.Writer().string(1, "PNR1").string(42, "added later").string(3, "Asha Rao").toByteArray();
+
+        BookingPlacedEvent event = placedDeserializer.deserialize("booking-placed-topic", data);
+
+        assertEquals("PNR1", event.getPnr());
+        assertEquals("Asha Rao", event.getName());
+    }
+
+    @Test
+    void jsonRecord_fromProducerNotYetSwitched_isStillRead() {
+        byte[] json = "{\"pnr\":\"PNR1\",\"flightId\":101,\"seatsToRelease\":2,\"reason\":\"x\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        BookingCancelledEvent event = cancelledDeserializer.deserialize("booking-cancellation-topic", json);
+
+        assertEquals("PNR1", event.getPnr());
+        assertEquals(101, event.getFlightId());
+        assertEquals(2, event.getSeatsToRelease());
+    }
+
+    @Test
+    void unknownVersions_areRejected() {
+        byte[] data = placed("PNR1", "asha@example.com", "Asha Rao");
+
+        for (int version : new int[] { 0, EventCodec.VERSION + 1, 0x80, 0xFF }) {
+            byte[] record = data.clone();
+            record[1] = (byte) version;
+            assertThrows(SerializationException.class,
+                    () -> placedDeserializer.deserialize("booking-placed-topic", record), "version " + version);
+            assertThrows(SerializationException.class,
+                    () -> cancelledDeserializer.deserialize("booking-cancellation-topic", record), "version " + version);
+        }
+    }
+
+    @Test
+    void unknownFormat_isRejectedWithoutGuessing() {
+        byte[] text = "PNR1,101,2".getBytes(StandardCharsets.UTF_8);
+
+        SerializationException e = assertThrows(SerializationException.class,
+                () -> cancelledDeserializer.deserialize("booking-cancellation-topic", text));
+        assertEquals("Unknown event format on booking-cancellation-topic (first byte 0x50)", e.getMessage());
+        assertThrows(SerializationException.class, () -> placedDeserializer.deserialize("booking-placed-topic", new byte[0]));
+    }
+}